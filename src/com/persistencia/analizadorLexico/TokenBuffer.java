@@ -0,0 +1,146 @@
+package com.persistencia.analizadorLexico;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Tira de tokens compacta: tipo, inicio y longitud del lexema y línea se guardan en
+ * arreglos int paralelos, sin un objeto por token. El lexema solo se crea cuando se
+ * pide, como vista sobre el código fuente. Los identificadores guardan además su id
+ * en la {@link tablaNombres} del lexer. La línea no se guarda por token: se resuelve
+ * con el {@link indiceLineas} que el lexer arma al escanear.
+ */
+public final class TokenBuffer {
+
+    private static final tipoToken[] TIPOS = tipoToken.values();
+
+    private final CharSequence fuente;
+    private final tablaNombres nombres;
+    private final indiceLineas lineas;
+    private int[] tipos;
+    private int[] inicios;
+    private int[] longitudes;
+    private int[] simbolos;
+    private int tam = 0;
+
+    TokenBuffer(CharSequence fuente, tablaNombres nombres, indiceLineas lineas) {
+        this.fuente = fuente;
+        this.nombres = nombres;
+        this.lineas = lineas;
+        // Estimación: un token por cada ~4 caracteres de código
+        int capacidad = Math.max(16, fuente.length() / 4);
+        tipos = new int[capacidad];
+        inicios = new int[capacidad];
+        longitudes = new int[capacidad];
+        simbolos = new int[capacidad];
+    }
+
+    void agregar(tipoToken tipo, int inicio, int longitud, int simbolo) {
+        if (tam == tipos.length) {
+            int nueva = tam * 2;
+            tipos = Arrays.copyOf(tipos, nueva);
+            inicios = Arrays.copyOf(inicios, nueva);
+            longitudes = Arrays.copyOf(longitudes, nueva);
+            simbolos = Arrays.copyOf(simbolos, nueva);
+        }
+        tipos[tam] = tipo.ordinal();
+        inicios[tam] = inicio;
+        longitudes[tam] = longitud;
+        simbolos[tam] = simbolo;
+        tam++;
+    }
+
+    public int size() {
+        return tam;
+    }
+
+    public tipoToken tipo(int i) {
+        return TIPOS[tipos[indice(i)]];
+    }
+
+    public int linea(int i) {
+        int k = indice(i);
+        if (tipos[k] == tipoToken.EOF.ordinal()) {
+            return lineas.ultimaLinea();   // EOF va en la línea donde terminó la entrada
+        }
+        return lineas.linea(inicios[k]);
+    }
+
+    /** Columna (desde 1) dentro de su línea, para diagnósticos. */
+    public int columnaEnLinea(int i) {
+        return Math.max(1, columna(i) - lineas.inicioDeLinea(linea(i)) + 1);
+    }
+
+    public indiceLineas lineas() {
+        return lineas;
+    }
+
+    /** Inicio del lexema dentro del código fuente. */
+    public int inicio(int i) {
+        return inicios[indice(i)];
+    }
+
+    /** Id del identificador en {@link #nombres()}, o -1 si el token no es un identificador. */
+    public int simbolo(int i) {
+        return simbolos[indice(i)];
+    }
+
+    public tablaNombres nombres() {
+        return nombres;
+    }
+
+    public int longitud(int i) {
+        return longitudes[indice(i)];
+    }
+
+    /** Columna con el mismo criterio que {@link token#columna} produce el lexer. */
+    public int columna(int i) {
+        switch (tipo(i)) {
+            case LITERAL_CADENA:
+                return inicios[i] - 1;                 // la comilla de apertura
+            case ERROR_DE_CADENA:
+                return inicios[i] + longitudes[i];     // donde terminó la entrada
+            default:
+                return inicios[i];
+        }
+    }
+
+    public String lexema(int i) {
+        int k = indice(i);
+        if (simbolos[k] >= 0) {
+            return nombres.nombre(simbolos[k]);
+        }
+        return fuente.subSequence(inicios[k], inicios[k] + longitudes[k]).toString();
+    }
+
+    /** Materializa el token i (solo para consumidores que esperan objetos token). */
+    public token get(int i) {
+        return new token(tipo(i), lexema(i), linea(i), columna(i), simbolos[indice(i)]);
+    }
+
+    /** Vista de solo lectura como lista; cada token se crea al consultarlo. */
+    public List<token> comoLista() {
+        return new vistaLista();
+    }
+
+    private int indice(int i) {
+        if (i < 0 || i >= tam) {
+            throw new IndexOutOfBoundsException("Token " + i + " fuera de 0.." + (tam - 1));
+        }
+        return i;
+    }
+
+    private final class vistaLista extends AbstractList<token> implements RandomAccess {
+        @Override
+        public token get(int i) {
+            return TokenBuffer.this.get(i);
+        }
+
+        @Override
+        public int size() {
+            return tam;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.persistencia.analizadorLexico;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tablas del motor de lexer por autómata (AFD): una tabla de clases de carácter y una
+ * tabla de transiciones plana. Los operadores salen de {@link tipoToken#simbolo()};
+ * identificadores, números, espacios, comentarios y el inicio de cadenas se agregan
+ * como estados fijos. Se construyen una sola vez al cargar la clase.
+ */
+final class automataLexico {
+
+    // Acciones de los estados de aceptación que no son un tipoToken
+    static final int NINGUNA = -1;
+    static final int SALTAR = -2;          // espacios y comentarios
+    static final int NUEVA_LINEA = -3;
+    static final int CADENA = -4;          // comilla de apertura: sigue lexer.literal()
+    static final int IDENTIFICADOR = -5;   // se clasifica con palabrasReservadas
+
+    static final int INICIAL = 0;
+    static final int SIN_TRANSICION = -1;
+
+    static final int ASCII = 128;
+    static final byte[] CLASES = new byte[ASCII];
+    static final int CLASE_OTRO;
+    static final int NUM_CLASES;
+
+    static final int[] TRANSICION;   // [estado * NUM_CLASES + clase] -> estado o SIN_TRANSICION
+    static final int[] ACEPTA;       // [estado] -> ordinal de tipoToken o una de las acciones
+
+    private automataLexico() {}
+
+    static {
+        // ---------- clases de carácter ----------
+        int clases = 0;
+        final int letra = clases++;
+        final int digito = clases++;
+        final int espacio = clases++;
+        final int nuevaLinea = clases++;
+        final int comilla = clases++;
+        Map<Character, Integer> claseOperador = new LinkedHashMap<>();
+        for (tipoToken t : tipoToken.values()) {
+            if (t.simbolo() == null) continue;
+            for (char c : t.simbolo().toCharArray()) {
+                if (!claseOperador.containsKey(c)) claseOperador.put(c, clases++);
+            }
+        }
+        CLASE_OTRO = clases++;
+        NUM_CLASES = clases;
+
+        for (int c = 0; c < ASCII; c++) {
+            int clase = CLASE_OTRO;
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_') clase = letra;
+            else if (c >= '0' && c <= '9') clase = digito;
+            else if (c == ' ' || c == '\r' || c == '\t') clase = espacio;
+            else if (c == '\n') clase = nuevaLinea;
+            else if (c == '"') clase = comilla;
+            else if (claseOperador.containsKey((char) c)) clase = claseOperador.get((char) c);
+            CLASES[c] = (byte) clase;
+        }
+
+        // ---------- estados ----------
+        List<int[]> filas = new ArrayList<>();
+        List<Integer> acepta = new ArrayList<>();
+        nuevoEstado(filas, acepta, NINGUNA);   // INICIAL
+
+        // Operadores: un trie sobre los símbolos de tipoToken
+        for (tipoToken t : tipoToken.values()) {
+            if (t.simbolo() == null) continue;
+            int estado = INICIAL;
+            for (char c : t.simbolo().toCharArray()) {
+                int clase = claseOperador.get(c);
+                if (filas.get(estado)[clase] == SIN_TRANSICION) {
+                    filas.get(estado)[clase] = nuevoEstado(filas, acepta, NINGUNA);
+                }
+                estado = filas.get(estado)[clase];
+            }
+            acepta.set(estado, t.ordinal());
+        }
+
+        // Comentario de línea: "//" y todo hasta antes del salto de línea
+        int barra = filas.get(INICIAL)[claseOperador.get('/')];
+        int comentario = nuevoEstado(filas, acepta, SALTAR);
+        filas.get(barra)[claseOperador.get('/')] = comentario;
+        for (int k = 0; k < NUM_CLASES; k++) {
+            if (k != nuevaLinea) filas.get(comentario)[k] = comentario;
+        }
+
+        // Identificadores
+        int ident = nuevoEstado(filas, acepta, IDENTIFICADOR);
+        filas.get(INICIAL)[letra] = ident;
+        filas.get(ident)[letra] = ident;
+        filas.get(ident)[digito] = ident;
+
+        // Números: entero, y flotante solo si al punto le sigue un dígito
+        int entero = nuevoEstado(filas, acepta, tipoToken.LITERAL_ENTERA.ordinal());
+        int enteroPunto = nuevoEstado(filas, acepta, NINGUNA);
+        int flotante = nuevoEstado(filas, acepta, tipoToken.LITERAL_FLOTANTE.ordinal());
+        filas.get(INICIAL)[digito] = entero;
+        filas.get(entero)[digito] = entero;
+        filas.get(entero)[claseOperador.get('.')] = enteroPunto;
+        filas.get(enteroPunto)[digito] = flotante;
+        filas.get(flotante)[digito] = flotante;
+
+        // Espacios y saltos de línea uno a uno, como el escáner manual: así el inicio del
+        // token siguiente (y el del EOF tras espacios finales) queda en la misma columna
+        filas.get(INICIAL)[espacio] = nuevoEstado(filas, acepta, SALTAR);
+        filas.get(INICIAL)[nuevaLinea] = nuevoEstado(filas, acepta, NUEVA_LINEA);
+        filas.get(INICIAL)[comilla] = nuevoEstado(filas, acepta, CADENA);
+
+        TRANSICION = new int[filas.size() * NUM_CLASES];
+        ACEPTA = new int[filas.size()];
+        for (int e = 0; e < filas.size(); e++) {
+            System.arraycopy(filas.get(e), 0, TRANSICION, e * NUM_CLASES, NUM_CLASES);
+            ACEPTA[e] = acepta.get(e);
+        }
+    }
+
+    private static int nuevoEstado(List<int[]> filas, List<Integer> acepta, int accion) {
+        int[] fila = new int[NUM_CLASES];
+        java.util.Arrays.fill(fila, SIN_TRANSICION);
+        filas.add(fila);
+        acepta.add(accion);
+        return filas.size() - 1;
+    }
+
+    static int clase(char c) {
+        return c < ASCII ? CLASES[c] : CLASE_OTRO;
+    }
+}
@@ -0,0 +1,66 @@
+package com.persistencia.analizadorLexico;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Vista de solo lectura de un archivo mapeado en memoria que el lexer recorre
+ * byte a byte (ASCII/UTF-8) sin decodificarlo a UTF-16 por adelantado.
+ * Solo se decodifica el texto de los rangos que se convierten a String (lexemas).
+ *
+ * Los índices son desplazamientos en bytes; los caracteres no ASCII aparecen como
+ * sus bytes UTF-8 individuales (0x80-0xFF).
+ */
+public final class fuenteMapeada implements CharSequence {
+
+    private final ByteBuffer bytes;
+    private final int desde;
+    private final int hasta;
+
+    private fuenteMapeada(ByteBuffer bytes, int desde, int hasta) {
+        this.bytes = bytes;
+        this.desde = desde;
+        this.hasta = hasta;
+    }
+
+    public static fuenteMapeada abrir(Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long tam = canal.size();
+            if (tam > Integer.MAX_VALUE) {
+                throw new IOException("Archivo demasiado grande para mapear: " + ruta);
+            }
+            // El mapeo sigue siendo válido después de cerrar el canal
+            ByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tam);
+            return new fuenteMapeada(mapa, 0, (int) tam);
+        }
+    }
+
+    @Override
+    public int length() {
+        return hasta - desde;
+    }
+
+    @Override
+    public char charAt(int indice) {
+        return (char) (bytes.get(desde + indice) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int inicio, int fin) {
+        if (inicio < 0 || fin > length() || inicio > fin) {
+            throw new IndexOutOfBoundsException("[" + inicio + ", " + fin + ") fuera de 0.." + length());
+        }
+        return new fuenteMapeada(bytes, desde + inicio, desde + fin);
+    }
+
+    @Override
+    public String toString() {
+        byte[] copia = new byte[length()];
+        bytes.get(desde, copia);
+        return new String(copia, StandardCharsets.UTF_8);
+    }
+}
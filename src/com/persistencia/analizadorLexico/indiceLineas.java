@@ -0,0 +1,67 @@
+package com.persistencia.analizadorLexico;
+
+import java.util.Arrays;
+
+/**
+ * Posiciones de inicio de cada línea del código fuente. El lexer agrega una entrada
+ * por cada '\n' que consume; línea y columna de una posición se resuelven cuando
+ * se piden, con búsqueda binaria, en lugar de llevarlas token por token.
+ *
+ * Líneas y columnas empiezan en 1.
+ */
+public final class indiceLineas {
+
+    private final int primeraLinea;
+    private int[] inicios = new int[64];
+    private int tam = 0;
+
+    /** Índice vacío cuya primera línea (número primeraLinea) empieza en inicio. */
+    indiceLineas(int inicio, int primeraLinea) {
+        this.primeraLinea = primeraLinea;
+        agregar(inicio);
+    }
+
+    /** Índice completo de un texto ya existente (para quien no tiene el lexer a mano). */
+    public static indiceLineas de(CharSequence texto) {
+        indiceLineas indice = new indiceLineas(0, 1);
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == '\n') indice.agregar(i + 1);
+        }
+        return indice;
+    }
+
+    void agregar(int inicioLinea) {
+        if (tam == inicios.length) inicios = Arrays.copyOf(inicios, tam * 2);
+        inicios[tam++] = inicioLinea;
+    }
+
+    /** Agrega las líneas de otro índice que continúa a este (sin repetir su primera línea). */
+    void continuarCon(indiceLineas siguiente) {
+        for (int k = 1; k < siguiente.tam; k++) agregar(siguiente.inicios[k]);
+    }
+
+    /** Número de línea de la posición. */
+    public int linea(int posicion) {
+        return primeraLinea + indice(posicion);
+    }
+
+    /** Columna de la posición dentro de su línea. */
+    public int columna(int posicion) {
+        return posicion - inicios[indice(posicion)] + 1;
+    }
+
+    public int ultimaLinea() {
+        return primeraLinea + tam - 1;
+    }
+
+    public int inicioDeLinea(int linea) {
+        return inicios[linea - primeraLinea];
+    }
+
+    /** Mayor k con inicios[k] <= posicion. */
+    private int indice(int posicion) {
+        int k = Arrays.binarySearch(inicios, 0, tam, posicion);
+        if (k >= 0) return k;
+        return Math.max(0, -k - 2);
+    }
+}
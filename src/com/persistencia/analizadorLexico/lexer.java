@@ -1,30 +1,276 @@
 package com.persistencia.analizadorLexico;
 
+import com.persistencia.traza.Traza;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-
-public class lexer {
-    private String codigo;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Analizador léxico. Puede usarse en modo lista ({@link #scanTokens()}) o en modo
+ * flujo ({@link #nextToken()} / {@link Iterator}), donde solo se produce el token
+ * que el analizador sintáctico pide.
+ *
+ * Hay dos motores equivalentes: el escáner escrito a mano ({@link Motor#MANUAL}) y
+ * uno por tablas de transición generadas desde {@link tipoToken} ({@link Motor#TABLA}).
+ *
+ * Con {@link Modo#PARALELO} la entrada se corta en saltos de línea y los tramos se
+ * escanean en un {@link ForkJoinPool}. Todo '\n' es frontera segura: las cadenas y
+ * los comentarios de este lenguaje terminan antes del salto de línea.
+ */
+public class lexer implements Iterator<token> {
+
+    public enum Motor { MANUAL, TABLA }
+
+    public enum Modo { SECUENCIAL, PARALELO }
+
+    // Por debajo de este tamaño por tramo no compensa repartir el trabajo
+    private static final int TAM_MINIMO_TRAMO = 256 * 1024;
+    private static final int TRAMOS_POR_HILO = 4;
+
+    private static final tipoToken[] TIPOS = tipoToken.values();
+
+    private final CharSequence codigo;
+    private final Motor motor;
+    private final int fin;            // el lexer recorre codigo[inicio original, fin)
+    private final tablaNombres nombres;
     private int inicio = 0;
     private int actual = 0;
-    private int linea = 1;
+    private final indiceLineas lineas;   // inicio de cada línea vista; la línea actual es la última
     private final List<token> tokens = new ArrayList<>();
-    public lexer(String codigo){
+    private token siguiente = null;   // token producido por el último scanToken()
+    private TokenBuffer buffer = null;  // destino en modo scanTokenBuffer()
+    private boolean finEmitido = false;
+
+    public lexer(CharSequence codigo){
+        this(codigo, Motor.MANUAL);
+    }
+
+    public lexer(CharSequence codigo, Motor motor){
+        this(codigo, 0, codigo.length(), 1, motor, new tablaNombres());
+    }
+
+    /**
+     * Lexer sobre codigo[desde, hasta); las columnas siguen siendo posiciones absolutas
+     * y los identificadores se internan en la tabla de nombres indicada.
+     */
+    lexer(CharSequence codigo, int desde, int hasta, int lineaInicial, Motor motor, tablaNombres nombres){
         this.codigo = codigo;
+        this.motor = motor;
+        this.nombres = nombres;
+        this.fin = hasta;
+        this.inicio = desde;
+        this.actual = desde;
+        this.lineas = new indiceLineas(desde, lineaInicial);
+    }
+
+    /**
+     * Lexer sobre el archivo mapeado en memoria, recorrido como bytes ASCII/UTF-8.
+     * Las columnas son desplazamientos en bytes.
+     */
+    public static lexer mapeado(Path ruta) throws IOException {
+        return new lexer(fuenteMapeada.abrir(ruta));
+    }
+
+    /** Inicios de línea vistos hasta ahora, para resolver línea y columna de una posición. */
+    public indiceLineas lineas() {
+        return lineas;
+    }
+
+    /** Identificadores vistos hasta ahora; token.simbolo es un id de esta tabla. */
+    public tablaNombres nombres() {
+        return nombres;
     }
 
 
     public List<token> scanTokens() {
+        while (hasNext()) {
+            tokens.add(nextToken());
+        }
+        return tokens;
+    }
+
+    /** Igual que {@link #scanTokens()}; en modo PARALELO usa el pool común. */
+    public List<token> scanTokens(Modo modo) {
+        if (modo == Modo.PARALELO) {
+            return scanTokensParalelo(ForkJoinPool.commonPool());
+        }
+        return scanTokens();
+    }
+
+    /**
+     * Escanea el programa por tramos en el pool indicado. El resultado es idéntico
+     * al de {@link #scanTokens()}: las posiciones ya son absolutas y la línea inicial
+     * de cada tramo se obtiene contando los saltos de línea de los anteriores.
+     */
+    public List<token> scanTokensParalelo(ForkJoinPool pool) {
+        List<Integer> cortes = cortesDeTramos(pool.getParallelism());
+        if (cortes.size() <= 2) {
+            return scanTokens();
+        }
+        int n = cortes.size() - 1;
+
+        // 1) saltos de línea por tramo
+        List<Callable<Integer>> conteos = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int desde = cortes.get(i), hasta = cortes.get(i + 1);
+            conteos.add(() -> contarLineas(desde, hasta));
+        }
+        List<Future<Integer>> lineasPorTramo = pool.invokeAll(conteos);
+
+        // 2) cada tramo con su línea inicial y su propia tabla de nombres; solo el último emite EOF
+        List<Callable<List<token>>> tareas = new ArrayList<>(n);
+        lexer[] tramos = new lexer[n];
+        int lineaTramo = lineas.ultimaLinea();
+        for (int i = 0; i < n; i++) {
+            tablaNombres propios = (i == 0) ? nombres : new tablaNombres();
+            lexer tramo = new lexer(codigo, cortes.get(i), cortes.get(i + 1), lineaTramo, motor, propios);
+            boolean ultimo = i == n - 1;
+            tramos[i] = tramo;
+            tareas.add(() -> ultimo ? tramo.scanTokens() : tramo.scanTramo());
+            lineaTramo += obtener(lineasPorTramo.get(i));
+        }
+
+        // 3) unir en orden; los ids de cada tramo se traducen a la tabla común, lo que
+        //    deja la misma numeración (orden de primera aparición) que el escaneo secuencial
+        List<Future<List<token>>> resultados = pool.invokeAll(tareas);
+        for (int i = 0; i < n; i++) {
+            List<token> parcial = obtener(resultados.get(i));
+            lineas.continuarCon(tramos[i].lineas);
+            if (i == 0) {
+                tokens.addAll(parcial);
+                continue;
+            }
+            int[] traduccion = new int[tramos[i].nombres.size()];
+            for (int id = 0; id < traduccion.length; id++) {
+                traduccion[id] = nombres.internar(tramos[i].nombres.nombre(id));
+            }
+            for (token t : parcial) {
+                if (t.simbolo >= 0 && traduccion[t.simbolo] != t.simbolo) {
+                    t = new token(t.tipo, t.lexema, t.linea, t.columna, traduccion[t.simbolo]);
+                }
+                tokens.add(t);
+            }
+        }
+        actual = fin;
+        inicio = tramos[n - 1].inicio;
+        finEmitido = true;
+        return tokens;
+    }
+
+    /** Posiciones de corte (justo después de un '\n'), incluyendo el inicio y el fin. */
+    private List<Integer> cortesDeTramos(int hilos) {
+        List<Integer> cortes = new ArrayList<>();
+        cortes.add(actual);
+        int largo = fin - actual;
+        int n = Math.min(hilos * TRAMOS_POR_HILO, largo / TAM_MINIMO_TRAMO);
+        for (int k = 1; k < n; k++) {
+            int p = actual + (int) ((long) largo * k / n);
+            if (p < cortes.get(cortes.size() - 1)) continue;
+            while (p < fin && codigo.charAt(p) != '\n') p++;
+            if (p + 1 >= fin) break;
+            cortes.add(p + 1);
+        }
+        cortes.add(fin);
+        return cortes;
+    }
+
+    private int contarLineas(int desde, int hasta) {
+        int n = 0;
+        for (int i = desde; i < hasta; i++) {
+            if (codigo.charAt(i) == '\n') n++;
+        }
+        return n;
+    }
+
+    /** Tokens del tramo sin el EOF final. */
+    List<token> scanTramo() {
+        List<token> salida = new ArrayList<>();
         while (!estaAlFinal()) {
             inicio = actual;
             scanToken();
+            if (siguiente != null) {
+                salida.add(siguiente);
+                siguiente = null;
+            }
+        }
+        return salida;
+    }
+
+    private static <T> T obtener(Future<T> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Análisis léxico interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en un tramo del análisis léxico", e.getCause());
         }
-        // Anadir el token de fin de archivo
-        tokens.add(new token(tipoToken.EOF, "", linea, inicio));
-        return tokens;
+    }
+
+    /**
+     * Escanea todo el programa hacia un {@link TokenBuffer} compacto: no se crean
+     * objetos token ni lexemas, solo se registran tipo, posición y línea.
+     */
+    public TokenBuffer scanTokenBuffer() {
+        TokenBuffer buf = new TokenBuffer(codigo, nombres, lineas);
+        buffer = buf;
+        try {
+            while (!estaAlFinal()) {
+                inicio = actual;
+                scanToken();
+            }
+        } finally {
+            buffer = null;
+        }
+        buf.agregar(tipoToken.EOF, inicio, 0, -1);
+        finEmitido = true;
+        return buf;
+    }
+
+    /**
+     * Devuelve el siguiente token del programa sin materializar los demás.
+     * Al agotarse la entrada devuelve EOF (también en llamadas posteriores).
+     */
+    public token nextToken() {
+        while (!estaAlFinal()) {
+            inicio = actual;
+            scanToken();
+            if (siguiente != null) {
+                token t = siguiente;
+                siguiente = null;
+                return t;
+            }
+        }
+        // Token de fin de archivo
+        finEmitido = true;
+        return new token(tipoToken.EOF, "", lineas.ultimaLinea(), inicio);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !finEmitido;
+    }
+
+    @Override
+    public token next() {
+        if (finEmitido) {
+            throw new NoSuchElementException("El lexer ya entregó EOF");
+        }
+        return nextToken();
     }
 
     private void scanToken() {
+        if (motor == Motor.TABLA) {
+            scanTokenTabla();
+            return;
+        }
         char c = avanzar();
         switch (c) {
             // símbolos de un solo carácter
@@ -162,7 +408,7 @@ public class lexer {
 
             // nueva línea
             case '\n':
-                linea++;
+                nuevaLinea();
                 break;
 
             // literales de cadena
@@ -201,18 +447,69 @@ public class lexer {
         }
     }
     
+    /**
+     * Un token con el autómata de {@link automataLexico}: avanza mientras haya
+     * transición y se queda con el último estado de aceptación (lexema más largo).
+     */
+    private void scanTokenTabla() {
+        final int[] transicion = automataLexico.TRANSICION;
+        final int[] acepta = automataLexico.ACEPTA;
+        final int clases = automataLexico.NUM_CLASES;
+        int estado = automataLexico.INICIAL;
+        int accion = automataLexico.NINGUNA;
+        int hastaAceptado = actual;
+        int pos = actual;
+        while (pos < fin) {
+            estado = transicion[estado * clases + automataLexico.clase(codigo.charAt(pos))];
+            if (estado == automataLexico.SIN_TRANSICION) break;
+            pos++;
+            if (acepta[estado] != automataLexico.NINGUNA) {
+                accion = acepta[estado];
+                hastaAceptado = pos;
+            }
+        }
+
+        if (accion == automataLexico.NINGUNA) {
+            // carácter no reconocido
+            actual++;
+            aniadirToken(tipoToken.DESCONOCIDO);
+            return;
+        }
+        actual = hastaAceptado;
+        switch (accion) {
+            case automataLexico.SALTAR:
+                break;
+            case automataLexico.NUEVA_LINEA:
+                nuevaLinea();
+                break;
+            case automataLexico.CADENA:
+                literal();
+                break;
+            case automataLexico.IDENTIFICADOR:
+                identificador();
+                break;
+            default:
+                aniadirToken(TIPOS[accion]);
+                break;
+        }
+    }
+
     public void identificador() {
         while (esAlfaNumerico(mirar())) {
             avanzar();
         }
-        String texto = codigo.substring(inicio, actual);
-        tipoToken tipo;
-        try {
-            tipo = tipoToken.valueOf(texto.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            tipo = tipoToken.IDENTIFICADOR;
+        tipoToken tipo = palabrasReservadas.buscar(codigo, inicio, actual);
+        if (tipo != null) {
+            aniadirToken(tipo);
+            return;
+        }
+        int simbolo = nombres.internar(codigo, inicio, actual);
+        if (buffer != null) {
+            buffer.agregar(tipoToken.IDENTIFICADOR, inicio, actual - inicio, simbolo);
+        } else {
+            // el lexema es el mismo String de la tabla de nombres
+            siguiente = new token(tipoToken.IDENTIFICADOR, nombres.nombre(simbolo), lineas.ultimaLinea(), inicio, simbolo);
         }
-        aniadirToken(tipo);
     }
 
     public void numero(){
@@ -233,24 +530,23 @@ public class lexer {
         while (mirar() != '"' && !estaAlFinal()) {
             // Si encontramos un salto de línea, salimos de inmediato
             if (mirar() == '\n' || mirar() == '\r') {
-                tokens.add(new token(tipoToken.COMILLA,
-                                    "\"",   // lexema = solo la comilla
-                                    linea,
-                                    inicio));
+                emitir(tipoToken.COMILLA, inicio, inicio + 1, inicio);   // lexema = solo la comilla
                 return; 
             }
             avanzar();
         }
         if(estaAlFinal()){
-            String textoErroneo = codigo.substring(inicio,actual);
-            tokens.add(new token(tipoToken.ERROR_DE_CADENA, textoErroneo, linea, actual));
-            System.out.println("Error en la linea " + linea + ": Cadena sin cerrar");
+            emitir(tipoToken.ERROR_DE_CADENA, inicio, actual, actual);
+            if (Traza.activo(Traza.Nivel.ERROR)) {
+                Traza.error("Error en la linea " + lineas.ultimaLinea()
+                        + ", columna " + lineas.columna(inicio) + ": Cadena sin cerrar");
+            }
             return;
         }
         // Si llegamos aquí es porque sí encontramos la comilla de cierre en la misma línea
         avanzar();
-        String valor = codigo.substring(inicio + 1, actual - 1);
-        aniadirToken(tipoToken.LITERAL_CADENA, valor);
+        // El lexema de la cadena no incluye las comillas
+        emitir(tipoToken.LITERAL_CADENA, inicio + 1, actual - 1, inicio);
     }
 
     private char avanzar(){
@@ -275,24 +571,30 @@ public class lexer {
     }
 
     private boolean estaAlFinal() {
-        return actual >= codigo.length();
+        return actual >= fin;
     }
 
     private char mirarSiguiente() {
-        if (actual + 1 >= codigo.length())
+        if (actual + 1 >= fin)
             return '\0';
         return codigo.charAt(actual + 1);
     }
 
+    private void nuevaLinea() {
+        lineas.agregar(actual);
+    }
+
     private void aniadirToken(tipoToken tipo) {
-        aniadirToken(tipo, null);
+        emitir(tipo, inicio, actual, inicio);
     }
 
-    private void aniadirToken(tipoToken tipo, Object literal ){
-        String texto = codigo.substring(inicio, actual);
-        // Si el codigo actual no es nulo, se usa ese para cadenas
-        String lexema = (literal == null)  ? texto : literal.toString();
-        tokens.add(new token(tipo, lexema, linea, inicio));
+    /** Emite un token cuyo lexema es codigo[desde, hasta). */
+    private void emitir(tipoToken tipo, int desde, int hasta, int columna) {
+        if (buffer != null) {
+            buffer.agregar(tipo, desde, hasta - desde, -1);
+        } else {
+            siguiente = new token(tipo, codigo.subSequence(desde, hasta).toString(), lineas.ultimaLinea(), columna);
+        }
     }
 
 
@@ -0,0 +1,246 @@
+package com.persistencia.analizadorLexico;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Re-análisis léxico incremental para editores. Guarda el texto y la tira de tokens
+ * del último análisis; cada edición (posición, caracteres eliminados, texto insertado)
+ * re-escanea solo desde el inicio de la línea editada hasta el primer salto de línea
+ * posterior a la edición.
+ *
+ * Eso basta porque el lexer vuelve a su estado inicial en cada '\n' (ni cadenas ni
+ * comentarios cruzan líneas): a partir de ahí los tokens anteriores siguen siendo
+ * válidos, solo desplazados en columna y línea. Ese desplazamiento se aplica de forma
+ * perezosa, así que una edición pequeña no recorre el resto del archivo.
+ */
+public final class lexerIncremental {
+
+    // Con más tramos que estos la tira se materializa en una lista plana
+    private static final int MAX_SEGMENTOS = 64;
+
+    private final lexer.Motor motor;
+    private final tablaNombres nombres;
+    private final StringBuilder texto;
+    private List<token> tokens;
+
+    /** Resultado de una edición: tokens [desde, desde + eliminados) reemplazados por insertados. */
+    public static final class Cambio {
+        public final int desde;
+        public final int eliminados;
+        public final List<token> insertados;
+
+        Cambio(int desde, int eliminados, List<token> insertados) {
+            this.desde = desde;
+            this.eliminados = eliminados;
+            this.insertados = insertados;
+        }
+
+        @Override
+        public String toString() {
+            return "Cambio [desde=" + desde + ", eliminados=" + eliminados + ", insertados=" + insertados.size() + "]";
+        }
+    }
+
+    public lexerIncremental(CharSequence texto) {
+        this(texto, lexer.Motor.MANUAL);
+    }
+
+    public lexerIncremental(CharSequence texto, lexer.Motor motor) {
+        this.motor = motor;
+        this.texto = new StringBuilder(texto);
+        lexer inicial = new lexer(this.texto, motor);
+        this.nombres = inicial.nombres();
+        this.tokens = inicial.scanTokens();
+    }
+
+    public CharSequence texto() {
+        return texto;
+    }
+
+    /** Tabla de nombres compartida por todas las ediciones (los ids no cambian). */
+    public tablaNombres nombres() {
+        return nombres;
+    }
+
+    /** Tira de tokens actual, idéntica a la de un análisis completo del texto. */
+    public List<token> tokens() {
+        return tokens;
+    }
+
+    /** Reemplaza texto[posicion, posicion + eliminados) por insertado y re-escanea lo dañado. */
+    public Cambio editar(int posicion, int eliminados, String insertado) {
+        int finEliminado = posicion + eliminados;
+        if (posicion < 0 || finEliminado > texto.length() || eliminados < 0) {
+            throw new IndexOutOfBoundsException("Edición [" + posicion + ", " + finEliminado
+                    + ") fuera de 0.." + texto.length());
+        }
+        List<token> anteriores = tokens;
+        int eof = anteriores.size() - 1;
+
+        int lineasQuitadas = contarLineas(posicion, finEliminado);
+        texto.replace(posicion, finEliminado, insertado);
+        int finInsertado = posicion + insertado.length();
+        int delta = insertado.length() - eliminados;
+        int lineasAgregadas = contarLineas(posicion, finInsertado);
+
+        // Punto de reinicio: inicio de la línea que contiene la edición (el texto previo no cambió).
+        // Si ahí ya no queda nada, se retrocede una línea para que EOF quede donde lo pone el lexer.
+        int reinicio = inicioDeLinea(posicion);
+        if (reinicio == texto.length() && reinicio > 0) {
+            reinicio = inicioDeLinea(reinicio - 1);
+        }
+        int i = Math.min(primerTokenDesde(anteriores, reinicio), eof);
+        int lineaReinicio = (i > 0)
+                ? anteriores.get(i - 1).linea + contarLineas(inicio(anteriores.get(i - 1)), reinicio)
+                : 1 + contarLineas(0, reinicio);
+
+        // Fin del re-escaneo: justo después del primer '\n' que no forma parte de la edición
+        int salto = texto.indexOf("\n", finInsertado);
+        boolean hastaElFinal = salto < 0 || salto + 1 >= texto.length();
+        int finTramo = hastaElFinal ? texto.length() : salto + 1;
+
+        lexer tramo = new lexer(texto, reinicio, finTramo, lineaReinicio, motor, nombres);
+        List<token> nuevos = hastaElFinal ? tramo.scanTokens() : tramo.scanTramo();
+        int j = hastaElFinal ? anteriores.size() : primerTokenDesde(anteriores, finTramo - delta);
+
+        int dCol = delta;
+        int dLin = lineasAgregadas - lineasQuitadas;
+        List<segmento> segmentos = new ArrayList<>();
+        agregar(segmentos, anteriores, 0, i, 0, 0);
+        agregar(segmentos, nuevos, 0, nuevos.size(), 0, 0);
+        agregar(segmentos, anteriores, j, anteriores.size(), dCol, dLin);
+        tokens = (segmentos.size() > MAX_SEGMENTOS)
+                ? new ArrayList<>(new tira(segmentos))
+                : new tira(segmentos);
+
+        // El diff omite los tokens del tramo que no cambiaron
+        int comunesInicio = 0;
+        while (comunesInicio < nuevos.size() && i + comunesInicio < j
+                && iguales(nuevos.get(comunesInicio), anteriores.get(i + comunesInicio), 0, 0)) {
+            comunesInicio++;
+        }
+        int comunesFin = 0;
+        while (comunesFin < nuevos.size() - comunesInicio && j - comunesFin > i + comunesInicio
+                && iguales(nuevos.get(nuevos.size() - 1 - comunesFin), anteriores.get(j - 1 - comunesFin), dCol, dLin)) {
+            comunesFin++;
+        }
+        return new Cambio(i + comunesInicio, j - i - comunesInicio - comunesFin,
+                Collections.unmodifiableList(nuevos.subList(comunesInicio, nuevos.size() - comunesFin)));
+    }
+
+    // ==================== POSICIONES ====================
+
+    /** Posición donde empieza el token (la columna de ERROR_DE_CADENA es su final). */
+    private static int inicio(token t) {
+        return (t.tipo == tipoToken.ERROR_DE_CADENA) ? t.columna - t.lexema.length() : t.columna;
+    }
+
+    /** Primer token que empieza en posicion o después (los inicios no decrecen). */
+    private static int primerTokenDesde(List<token> lista, int posicion) {
+        int bajo = 0, alto = lista.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (inicio(lista.get(medio)) < posicion) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    private int inicioDeLinea(int posicion) {
+        while (posicion > 0 && texto.charAt(posicion - 1) != '\n') posicion--;
+        return posicion;
+    }
+
+    private int contarLineas(int desde, int hasta) {
+        int n = 0;
+        for (int k = desde; k < hasta; k++) {
+            if (texto.charAt(k) == '\n') n++;
+        }
+        return n;
+    }
+
+    private static boolean iguales(token nuevo, token anterior, int dCol, int dLin) {
+        return nuevo.tipo == anterior.tipo
+                && nuevo.columna == anterior.columna + dCol
+                && nuevo.linea == anterior.linea + dLin
+                && nuevo.lexema.equals(anterior.lexema);
+    }
+
+    // ==================== TIRA POR SEGMENTOS ====================
+
+    /** base[desde, hasta) con columnas y líneas desplazadas. */
+    private static final class segmento {
+        final List<token> base;
+        final int desde;
+        final int hasta;
+        final int dCol;
+        final int dLin;
+
+        segmento(List<token> base, int desde, int hasta, int dCol, int dLin) {
+            this.base = base;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.dCol = dCol;
+            this.dLin = dLin;
+        }
+    }
+
+    /** Agrega lista[desde, hasta) desplazada; si lista ya es una tira, reusa sus segmentos. */
+    private static void agregar(List<segmento> out, List<token> lista, int desde, int hasta, int dCol, int dLin) {
+        if (desde >= hasta) return;
+        if (!(lista instanceof tira)) {
+            out.add(new segmento(lista, desde, hasta, dCol, dLin));
+            return;
+        }
+        tira t = (tira) lista;
+        for (int s = 0; s < t.segmentos.length; s++) {
+            segmento seg = t.segmentos[s];
+            int a = Math.max(desde, t.acumulado[s]);
+            int b = Math.min(hasta, t.acumulado[s + 1]);
+            if (a >= b) continue;
+            out.add(new segmento(seg.base,
+                    seg.desde + (a - t.acumulado[s]), seg.desde + (b - t.acumulado[s]),
+                    seg.dCol + dCol, seg.dLin + dLin));
+        }
+    }
+
+    /** Lista de solo lectura formada por segmentos; los tokens desplazados se crean al consultarlos. */
+    private static final class tira extends AbstractList<token> implements RandomAccess {
+        final segmento[] segmentos;
+        final int[] acumulado;   // acumulado[s] = índice global del primer token del segmento s
+
+        tira(List<segmento> lista) {
+            segmentos = lista.toArray(new segmento[0]);
+            acumulado = new int[segmentos.length + 1];
+            for (int s = 0; s < segmentos.length; s++) {
+                acumulado[s + 1] = acumulado[s] + segmentos[s].hasta - segmentos[s].desde;
+            }
+        }
+
+        @Override
+        public token get(int i) {
+            if (i < 0 || i >= size()) {
+                throw new IndexOutOfBoundsException("Token " + i + " fuera de 0.." + (size() - 1));
+            }
+            int bajo = 0, alto = segmentos.length - 1;
+            while (bajo < alto) {
+                int medio = (bajo + alto + 1) >>> 1;
+                if (acumulado[medio] <= i) bajo = medio;
+                else alto = medio - 1;
+            }
+            segmento seg = segmentos[bajo];
+            token t = seg.base.get(seg.desde + (i - acumulado[bajo]));
+            if (seg.dCol == 0 && seg.dLin == 0) return t;
+            return new token(t.tipo, t.lexema, t.linea + seg.dLin, t.columna + seg.dCol, t.simbolo);
+        }
+
+        @Override
+        public int size() {
+            return acumulado[segmentos.length];
+        }
+    }
+}
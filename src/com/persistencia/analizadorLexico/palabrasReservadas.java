@@ -0,0 +1,57 @@
+package com.persistencia.analizadorLexico;
+
+/**
+ * Trie de palabras reservadas generado una sola vez a partir de la sección de
+ * palabras reservadas de {@link tipoToken} (de PACKAGE hasta PRINTLN).
+ * La búsqueda no distingue mayúsculas/minúsculas, igual que el antiguo
+ * tipoToken.valueOf(texto.toUpperCase()), pero no crea cadenas ni excepciones.
+ */
+public final class palabrasReservadas {
+
+    private static final int LETRAS = 26;
+
+    // siguiente[nodo * LETRAS + letra] = nodo hijo (0 = sin hijo; el nodo 0 es la raíz)
+    private static final int[] siguiente;
+    private static final tipoToken[] terminal;
+
+    static {
+        int ultima = tipoToken.PRINTLN.ordinal();
+        int maxNodos = 1;
+        for (tipoToken t : tipoToken.values()) {
+            if (t.ordinal() <= ultima) maxNodos += t.name().length();
+        }
+
+        int[] sig = new int[maxNodos * LETRAS];
+        tipoToken[] term = new tipoToken[maxNodos];
+        int nodos = 1;
+        for (tipoToken t : tipoToken.values()) {
+            if (t.ordinal() > ultima) continue;
+            int nodo = 0;
+            for (char c : t.name().toCharArray()) {
+                int k = nodo * LETRAS + (c - 'A');
+                if (sig[k] == 0) sig[k] = nodos++;
+                nodo = sig[k];
+            }
+            term[nodo] = t;
+        }
+        siguiente = sig;
+        terminal = term;
+    }
+
+    private palabrasReservadas() {}
+
+    /** Devuelve la palabra reservada de texto[desde, hasta) o null si es un identificador. */
+    public static tipoToken buscar(CharSequence texto, int desde, int hasta) {
+        int nodo = 0;
+        for (int i = desde; i < hasta; i++) {
+            char c = texto.charAt(i);
+            int letra;
+            if (c >= 'a' && c <= 'z') letra = c - 'a';
+            else if (c >= 'A' && c <= 'Z') letra = c - 'A';
+            else return null;   // dígitos y '_' no aparecen en palabras reservadas
+            nodo = siguiente[nodo * LETRAS + letra];
+            if (nodo == 0) return null;
+        }
+        return terminal[nodo];
+    }
+}
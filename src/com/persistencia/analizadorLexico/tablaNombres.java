@@ -0,0 +1,92 @@
+package com.persistencia.analizadorLexico;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tabla de nombres de una compilación: cada identificador distinto recibe un id
+ * entero (0, 1, 2, ... en orden de primera aparición). El lexer interna los
+ * identificadores directamente desde el código fuente, sin crear un String para
+ * los que ya estaban, y las fases siguientes pueden comparar ids en lugar de cadenas.
+ *
+ * No es segura para hilos: cada lexer (o tramo en paralelo) usa la suya.
+ */
+public final class tablaNombres {
+
+    private final List<String> nombres = new ArrayList<>();
+    private int[] hashes = new int[16];
+    private int[] tabla = new int[32];   // id + 1 por casilla (0 = libre), direccionamiento abierto
+
+    /** Id del texto[desde, hasta); lo agrega si no estaba. */
+    public int internar(CharSequence texto, int desde, int hasta) {
+        int h = hash(texto, desde, hasta);
+        int mascara = tabla.length - 1;
+        for (int k = h & mascara; ; k = (k + 1) & mascara) {
+            int e = tabla[k];
+            if (e == 0) {
+                int id = nombres.size();
+                nombres.add(texto.subSequence(desde, hasta).toString());
+                if (id == hashes.length) hashes = Arrays.copyOf(hashes, id * 2);
+                hashes[id] = h;
+                tabla[k] = id + 1;
+                if (nombres.size() * 2 > tabla.length) redimensionar();
+                return id;
+            }
+            int id = e - 1;
+            if (hashes[id] == h && iguales(nombres.get(id), texto, desde, hasta)) {
+                return id;
+            }
+        }
+    }
+
+    public int internar(String nombre) {
+        return internar(nombre, 0, nombre.length());
+    }
+
+    /** Id del nombre o -1 si nunca se internó. */
+    public int buscar(String nombre) {
+        int h = hash(nombre, 0, nombre.length());
+        int mascara = tabla.length - 1;
+        for (int k = h & mascara; tabla[k] != 0; k = (k + 1) & mascara) {
+            int id = tabla[k] - 1;
+            if (hashes[id] == h && nombres.get(id).equals(nombre)) return id;
+        }
+        return -1;
+    }
+
+    public String nombre(int id) {
+        return nombres.get(id);
+    }
+
+    public int size() {
+        return nombres.size();
+    }
+
+    private void redimensionar() {
+        int[] nueva = new int[tabla.length * 2];
+        int mascara = nueva.length - 1;
+        for (int id = 0; id < nombres.size(); id++) {
+            int k = hashes[id] & mascara;
+            while (nueva[k] != 0) k = (k + 1) & mascara;
+            nueva[k] = id + 1;
+        }
+        tabla = nueva;
+    }
+
+    private static int hash(CharSequence texto, int desde, int hasta) {
+        int h = 0;
+        for (int i = desde; i < hasta; i++) {
+            h = 31 * h + texto.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean iguales(String nombre, CharSequence texto, int desde, int hasta) {
+        if (nombre.length() != hasta - desde) return false;
+        for (int i = 0; i < nombre.length(); i++) {
+            if (nombre.charAt(i) != texto.charAt(desde + i)) return false;
+        }
+        return true;
+    }
+}
@@ -13,55 +13,55 @@ public enum tipoToken {
     LITERAL_CADENA,
 
     // Operadores aritméticos
-    SUMA,           // +
-    RESTA,          // -
+    SUMA("+"),      // +
+    RESTA("-"),     // -
     MULTIPLICACION, // *
-    DIVISION,       // /
-    MOD,            // %
+    DIVISION("/"),  // /
+    MOD("%"),       // %
     
     // Operadores de asignación y comparación
-    ASIGNACION,     // =
-    IGUAL,          // ==
-    DIFERENTE,      // !=
-    MENOR_QUE,      // 
-    MAYOR_QUE,      // >
-    MENOR_IGUAL,    // <=
-    MAYOR_IGUAL,    // >=
+    ASIGNACION("="), // =
+    IGUAL("=="),    // ==
+    DIFERENTE("!="), // !=
+    MENOR_QUE("<"), // 
+    MAYOR_QUE(">"), // >
+    MENOR_IGUAL("<="), // <=
+    MAYOR_IGUAL(">="), // >=
     
     // Operadores lógicos
-    AND,            // &&
-    OR,             // ||
-    NOT,            // !
+    AND("&&"),      // &&
+    OR("||"),       // ||
+    NOT("!"),       // !
     
     // Operadores bit a bit
-    BITAND,         // &
-    BITOR,          // |
-    BITXOR,         // ^
-    TILDE,          // ~ (complemento bit a bit)
+    BITAND("&"),    // &
+    BITOR("|"),     // |
+    BITXOR("^"),    // ^
+    TILDE("~"),     // ~ (complemento bit a bit)
     
     // Operadores de desplazamiento
-    LSHIFT,         // 
-    RSHIFT,         // >>
-    URSHIFT,        // >>>
+    LSHIFT("<<"),   // 
+    RSHIFT(">>"),   // >>
+    URSHIFT(">>>"), // >>>
 
     // Símbolos y Delimitadores
-    CORCHETE_IZQ,   // [
-    CORCHETE_DER,   // ]
-    PARENTESIS_IZQ, // (
-    PARENTESIS_DER, // )
-    LLAVE_IZQ,      // {
-    LLAVE_DER,      // }
-    PUNTO_Y_COMA,   // ;
-    COMA,           // ,
-    PUNTO,          // .
-    DOS_PUNTOS,     // :
+    CORCHETE_IZQ("["), // [
+    CORCHETE_DER("]"), // ]
+    PARENTESIS_IZQ("("), // (
+    PARENTESIS_DER(")"), // )
+    LLAVE_IZQ("{"), // {
+    LLAVE_DER("}"), // }
+    PUNTO_Y_COMA(";"), // ;
+    COMA(","),      // ,
+    PUNTO("."),     // .
+    DOS_PUNTOS(":"), // :
     COLON,          // : (alias para la gramática)
-    QUESTION,       // ?
-    ASTERISK,       // * (para imports y genéricos)
+    QUESTION("?"),  // ?
+    ASTERISK("*"),  // * (para imports y genéricos)
     MENOR,          // < (para genéricos)
     MAYOR,          // > (para genéricos)
-    ELLIPSIS,       // ... (varargs)
-    ARROBA,         // @ (anotaciones)
+    ELLIPSIS("..."), // ... (varargs)
+    ARROBA("@"),    // @ (anotaciones)
     COMILLA,        // "
 
     // Token especial para el fin del archivo
@@ -69,5 +69,20 @@ public enum tipoToken {
     
     // Tokens para elementos desconocidos o errores
     DESCONOCIDO,
-    ERROR_DE_CADENA
+    ERROR_DE_CADENA;
+
+    // Lexema fijo con el que el lexer reconoce este token (null si no tiene uno)
+    private final String simbolo;
+
+    tipoToken() {
+        this(null);
+    }
+
+    tipoToken(String simbolo) {
+        this.simbolo = simbolo;
+    }
+
+    public String simbolo() {
+        return simbolo;
+    }
 }
\ No newline at end of file
@@ -5,12 +5,18 @@ public class token {
     public final String lexema;
     public final int linea;
     public final int columna;
+    public final int simbolo;   // id en la tablaNombres del lexer (-1 si no es identificador)
 
     public token(tipoToken tipo, String lexema, int linea, int columna){
+        this(tipo, lexema, linea, columna, -1);
+    }
+
+    public token(tipoToken tipo, String lexema, int linea, int columna, int simbolo){
         this.tipo = tipo;
         this.lexema = lexema;
         this.linea = linea;
         this.columna = columna;
+        this.simbolo = simbolo;
     }
 
     @Override
@@ -1,9 +1,10 @@
 package com.persistencia.analizadorSemantico;
 
 import com.persistencia.analizadorSintacticoLR.tablaLR.lr0Table;
+import com.persistencia.analizadorSintacticoLR.tablaLR.tablaDensa;
 import com.persistencia.analizadorSintacticoLR.tablaLR.lrParser;
-import com.persistencia.analizadorSintacticoLR.coleccionCanonica.grammar;
 import com.persistencia.analizadorSintacticoLR.coleccionCanonica.production;
+import com.persistencia.traza.Traza;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
@@ -26,50 +27,18 @@ public class AnalizadorSemanticoLR {
      * Cargar acciones semánticas desde archivo
      */
     public void cargarAcciones(String rutaArchivo) throws Exception {
-        String contenido = Files.readString(Path.of(rutaArchivo));
-        String[] lineas = contenido.split("\n");
-        
-        System.out.println("\n📖 Cargando acciones semánticas...");
-        
-        for (String linea : lineas) {
-            linea = linea.trim();
-            if (linea.isEmpty() || linea.startsWith("//")) continue;
-            
-            int idx = linea.indexOf('{');
-            if (idx == -1) continue;
-            
-            String produccion = linea.substring(0, idx).trim();
-            String codigo = linea.substring(idx + 1, linea.lastIndexOf('}')).trim();
-            
-            // Normalizar caracteres prima
-            produccion = normalizarPrima(produccion);
-            codigo = normalizarPrima(codigo);
-            
-            acciones.put(produccion, new AccionSemantica(produccion, codigo));
-            System.out.println("   ✅ [" + produccion + "] -> " + codigo);
-        }
-        
-        System.out.println("📊 Total acciones: " + acciones.size());
-    }
-    
-    /**
-     * Normalizar diferentes representaciones de prima a apóstrofo simple
-     */
-    private String normalizarPrima(String texto) {
-        return texto
-            .replace("′", "'")  // U+2032 PRIME
-            .replace("´", "'")  // U+00B4 ACUTE ACCENT
-            .replace("ʹ", "'")  // U+02B9 MODIFIER LETTER PRIME
-            .replace("ˊ", "'")  // U+02CA MODIFIER LETTER ACUTE ACCENT
-            .replace("'", "'"); // U+2019 RIGHT SINGLE QUOTATION MARK
+        Traza.info("\n📖 Cargando acciones semánticas...");
+        acciones.putAll(CompiledLanguage.acciones(rutaArchivo));
+        Traza.info("📊 Total acciones: " + acciones.size());
     }
     
     /**
      * Ejecutar análisis sintáctico-semántico
      */
     public ResultadoAnalisis analizar(String rutaGramatica, String rutaCodigo) throws Exception {
-        // 1. Construir tabla LR
-        lr0Table.Result table = lr0Table.buildFromFile(rutaGramatica);
+        // 1. Tabla LR (compilada una sola vez por contenido de la gramática)
+        CompiledLanguage lenguaje = CompiledLanguage.obtener(rutaGramatica);
+        lr0Table.Result table = lenguaje.tabla;
         
         // 2. Análisis léxico CON lexemas reales
         String programa = Files.readString(Path.of(rutaCodigo));
@@ -81,13 +50,8 @@ public class AnalizadorSemanticoLR {
             tokens.add(tl.token);
         }
         
-        // 3. Cargar producciones
-        grammar gAug = grammar.parseAugmentedGrammar(rutaGramatica);
-        List<production> rules = new ArrayList<>();
-        for (String A : gAug.byLeft.keySet()) {
-            if (A.endsWith("'")) continue;
-            rules.addAll(gAug.byLeft.get(A));
-        }
+        // 3. Producciones numeradas
+        List<production> rules = lenguaje.reglas;
         
         // 4. Análisis sintáctico-semántico
         analizarConSemantica(table, tokensConLexemas, rules);
@@ -161,6 +125,7 @@ public class AnalizadorSemanticoLR {
     private void analizarConSemantica(lr0Table.Result table, List<TokenLexema> tokensLex, List<production> rules) 
             throws Exception {
         
+        tablaDensa densa = table.densa;
         Deque<Object> pilaSintactica = new ArrayDeque<>();
         pilaSintactica.push(0);
         pilaSemantica.clear();
@@ -173,7 +138,7 @@ public class AnalizadorSemanticoLR {
             int estado = (int) pilaSintactica.peek();
             String simboloActual = (ptr < tokensLex.size()) ? tokensLex.get(ptr).token : "$";
             
-            String accion = table.action.getOrDefault(estado, Map.of()).get(simboloActual);
+            int accion = densa.accion(estado, densa.terminal(simboloActual));
             
             List<String> tokensRestantes = new ArrayList<>();
             for (int k = ptr; k < tokensLex.size(); k++) {
@@ -182,14 +147,14 @@ public class AnalizadorSemanticoLR {
             String entradaStr = String.join(" ", tokensRestantes);
             String pilaStr = renderPila(pilaSintactica);
             
-            if (accion == null || accion.isBlank()) {
+            if (accion == tablaDensa.ERROR) {
                 corrida.add(new PasoAnalisis(paso++, pilaStr, entradaStr, 
                     "ERROR", "Error sintáctico"));
                 throw new Exception("Error sintáctico en: " + simboloActual);
             }
             
-            if (accion.startsWith("d")) {
-                int j = Integer.parseInt(accion.substring(1));
+            if (tablaDensa.esDesplazar(accion)) {
+                int j = tablaDensa.estado(accion);
                 
                 String lexemaReal = tokensLex.get(ptr).lexema;
                 Object valor = obtenerValorToken(simboloActual, lexemaReal);
@@ -205,8 +170,8 @@ public class AnalizadorSemanticoLR {
                 continue;
             }
             
-            if (accion.startsWith("r")) {
-                int k = Integer.parseInt(accion.substring(1));
+            if (tablaDensa.esReducir(accion)) {
+                int k = tablaDensa.regla(accion);
                 production prod = rules.get(k - 1);
                 
                 int betaLen = calcularLongitud(prod.right);
@@ -220,9 +185,9 @@ public class AnalizadorSemanticoLR {
                 
                 int j = (int) pilaSintactica.peek();
                 pilaSintactica.push(prod.left);
-                Integer nuevoEstado = table.gotoTable.getOrDefault(j, Map.of()).get(prod.left);
+                int nuevoEstado = densa.irADespuesDe(j, k, prod.left);
                 
-                if (nuevoEstado == null) {
+                if (nuevoEstado == tablaDensa.SIN_IR_A) {
                     throw new Exception("GOTO[" + j + ", " + prod.left + "] no definido");
                 }
                 
@@ -235,18 +200,13 @@ public class AnalizadorSemanticoLR {
                 continue;
             }
             
-            if (accion.equalsIgnoreCase("acep") || accion.equalsIgnoreCase("aceptar")) {
-                corrida.add(new PasoAnalisis(paso++, pilaStr, entradaStr, 
-                    "Aceptar", ""));
-                
-                if (!pilaSemantica.isEmpty()) {
-                    resultadoFinal = pilaSemantica.peek();
-                }
-                break;
-            }
-            
+            // Lo único que queda es ACEPTAR
             corrida.add(new PasoAnalisis(paso++, pilaStr, entradaStr, 
-                accion, ""));
+                "Aceptar", ""));
+            
+            if (!pilaSemantica.isEmpty()) {
+                resultadoFinal = pilaSemantica.peek();
+            }
             break;
         }
     }
@@ -256,7 +216,7 @@ public class AnalizadorSemanticoLR {
      */
     private String ejecutarAccion(production prod, int betaLen) {
         String produccionStr = prod.left + "->" + String.join(" ", prod.right);
-        produccionStr = normalizarPrima(produccionStr);
+        produccionStr = CompiledLanguage.normalizarPrima(produccionStr);
         
         AccionSemantica accion = acciones.get(produccionStr);
         
@@ -283,7 +243,7 @@ public class AnalizadorSemanticoLR {
             }
             
         } catch (Exception e) {
-            System.err.println("❌ Error: " + e.getMessage());
+            Traza.error("❌ Error: " + e.getMessage());
             Object valorPredeterminado = obtenerValorPredeterminado(valores);
             pilaSemantica.push(valorPredeterminado);
             return "ERROR: " + e.getMessage();
@@ -302,7 +262,7 @@ public class AnalizadorSemanticoLR {
         }
         
         for (int i = 0; i < simbolos.size() && i < valores.size(); i++) {
-            String simbolo = normalizarPrima(simbolos.get(i));
+            String simbolo = CompiledLanguage.normalizarPrima(simbolos.get(i));
             
             if (simbolo.equals("ε") || simbolo.equalsIgnoreCase("epsilon")) {
                 continue;
@@ -432,18 +392,15 @@ public class AnalizadorSemanticoLR {
         
         String simbolo = matcher.group(1);
         String atributo = matcher.group(2);
-        String expresion = matcher.group(3).trim();
+        String cruda = matcher.group(3).trim();
+        String expresion = cruda.endsWith(";") ? cruda.substring(0, cruda.length() - 1).trim() : cruda;
         
-        if (expresion.endsWith(";")) {
-            expresion = expresion.substring(0, expresion.length() - 1).trim();
-        }
-        
-        System.out.println("🔧 Evaluando expresión: " + expresion);
-        System.out.println("📋 Contexto disponible: " + contexto);
+        Traza.depuracion(() -> "🔧 Evaluando expresión: " + expresion);
+        Traza.depuracion(() -> "📋 Contexto disponible: " + contexto);
         
         String resultado = evaluarExpresion(expresion, contexto);
         
-        System.out.println("✨ Resultado evaluado: \"" + resultado + "\"");
+        Traza.depuracion(() -> "✨ Resultado evaluado: \"" + resultado + "\"");
         
         pilaSemantica.push(resultado);
         
@@ -453,59 +410,58 @@ public class AnalizadorSemanticoLR {
     /**
      * Evaluar expresión
      */
-    private String evaluarExpresion(String expresion, Map<String, Object> contexto) {
-        expresion = expresion.trim();
+    private String evaluarExpresion(String texto, Map<String, Object> contexto) {
+        String expresion = texto.trim();
         
-        System.out.println("      🔍 evaluarExpresion: \"" + expresion + "\"");
+        Traza.depuracion(() -> "      🔍 evaluarExpresion: \"" + expresion + "\"");
         
         // String literal: "texto"
         if (expresion.startsWith("\"") && expresion.endsWith("\"") && !expresion.substring(1, expresion.length()-1).contains("\"")) {
             String resultado = expresion.substring(1, expresion.length() - 1);
-            System.out.println("      → String literal: \"" + resultado + "\"");
+            Traza.depuracion(() -> "      → String literal: \"" + resultado + "\"");
             return resultado;
         }
         
         // Expresión aritmética entre paréntesis: (num.valex-1)
         if (expresion.startsWith("(") && expresion.endsWith(")") && !expresion.substring(1, expresion.length()-1).contains("(")) {
             String interior = expresion.substring(1, expresion.length() - 1).trim();
-            System.out.println("      → Paréntesis, evaluando interior: \"" + interior + "\"");
+            Traza.depuracion(() -> "      → Paréntesis, evaluando interior: \"" + interior + "\"");
             return evaluarAritmetica(interior, contexto);
         }
         
         // Concatenación con + (PRIORIDAD: verificar ANTES de verificar si es referencia)
         if (expresion.contains("+")) {
-            System.out.println("      → Contiene +, evaluando concatenación");
+            Traza.depuracion("      → Contiene +, evaluando concatenación");
             return evaluarConcatenacion(expresion, contexto);
         }
         
         // Concatenación con ||
         if (expresion.contains("||")) {
-            System.out.println("      → Contiene ||, convirtiendo a +");
-            expresion = expresion.replace("||", "+");
-            return evaluarConcatenacion(expresion, contexto);
+            Traza.depuracion("      → Contiene ||, convirtiendo a +");
+            return evaluarConcatenacion(expresion.replace("||", "+"), contexto);
         }
         
         // Referencia a atributo: id.valex, V'.trad, E1.val
         if (expresion.matches("[a-zA-Z_][a-zA-Z0-9_']*\\.[a-zA-Z_][a-zA-Z0-9_]*")) {
             Object valor = contexto.get(expresion);
             String resultado = safeString(valor);
-            System.out.println("      → Referencia " + expresion + " = \"" + resultado + "\"");
+            Traza.depuracion(() -> "      → Referencia " + expresion + " = \"" + resultado + "\"");
             return resultado;
         }
         
         // Literal numérico
         if (expresion.matches("\\d+")) {
-            System.out.println("      → Número literal: " + expresion);
+            Traza.depuracion(() -> "      → Número literal: " + expresion);
             return expresion;
         }
         
         // Expresiones aritméticas simples
         if (expresion.matches(".+[+\\-*/].+")) {
-            System.out.println("      → Aritmética detectada");
+            Traza.depuracion("      → Aritmética detectada");
             return evaluarAritmetica(expresion, contexto);
         }
         
-        System.out.println("      → Valor por defecto: \"" + expresion + "\"");
+        Traza.depuracion(() -> "      → Valor por defecto: \"" + expresion + "\"");
         return expresion;
     }
     
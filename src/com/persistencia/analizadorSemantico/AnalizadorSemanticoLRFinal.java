@@ -1,12 +1,15 @@
 package com.persistencia.analizadorSemantico;
 
+import com.persistencia.analizadorLexico.TokenBuffer;
 import com.persistencia.analizadorLexico.lexer;
 import com.persistencia.analizadorLexico.tipoToken;
 import com.persistencia.analizadorLexico.token;
 import com.persistencia.analizadorSintacticoLR.tablaLR.lr0Table;
+import com.persistencia.analizadorSintacticoLR.tablaLR.tablaDensa;
 import com.persistencia.analizadorSintacticoLR.coleccionCanonica.grammar;
 import com.persistencia.analizadorSintacticoLR.coleccionCanonica.production;
 import com.persistencia.analizadorSemantico.PasoAnalisis;
+import com.persistencia.traza.Traza;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -22,6 +25,9 @@ public class AnalizadorSemanticoLRFinal {
     private static final String RUTA_GRAMATICA = "pruebas/Semantico/final/gramatica.txt";
     private static final String RUTA_ACCIONES = "pruebas/Semantico/final/acciones_semanticas.txt";
 
+    // A partir de este tamaño el programa se lee mapeado en memoria en lugar de decodificarlo completo
+    private static final long UMBRAL_MAPEO = 1L << 20;
+
     private Map<String, AccionSemantica> acciones;
     private List<PasoAnalisis> corrida;
     private Stack<Object> pilaSemantica;
@@ -43,60 +49,64 @@ public class AnalizadorSemanticoLRFinal {
      * Análisis completo: Léxico -> Sintáctico -> Semántico -> Traducción
      */
     public ResultadoAnalisisCompleto analizar(String rutaCodigo) throws Exception {
-        System.out.println("\n🚀 ========== INICIANDO ANÁLISIS COMPLETO ==========");
+        Traza.info("\n🚀 ========== INICIANDO ANÁLISIS COMPLETO ==========");
 
         // ✅ DECLARAR VARIABLES AL INICIO
         lr0Table.Result tableLR = null;
         List<TokenSemantico> tokensSemanticos = new ArrayList<>();
         List<token> tokensReales = new ArrayList<>();
-        String programa = "";
         grammar gAug = null;
         List<production> rules = new ArrayList<>();
 
         try {
-            // 1. Cargar gramática y acciones (hardcodeadas)
-            System.out.println("\n📖 FASE 1: Cargando gramática y acciones semánticas...");
-            cargarAcciones(RUTA_ACCIONES);
+            // 1. Cargar gramática y acciones (hardcodeadas; se compilan una vez por proceso)
+            Traza.info("\n📖 FASE 1: Cargando gramática y acciones semánticas...");
+            CompiledLanguage lenguaje = CompiledLanguage.obtener(RUTA_GRAMATICA, RUTA_ACCIONES);
+            acciones = lenguaje.acciones;
+            Traza.info("   ✅ Acciones semánticas cargadas: " + acciones.size());
 
-            // 2. Construir tabla LR
-            System.out.println("\n📊 FASE 2: Construyendo tabla de análisis sintáctico LR(0)...");
-            tableLR = lr0Table.buildFromFile(RUTA_GRAMATICA);
-            System.out.println("   ✅ Tabla LR construida exitosamente");
+            // 2. Tabla LR
+            Traza.info("\n📊 FASE 2: Construyendo tabla de análisis sintáctico LR(0)...");
+            tableLR = lenguaje.tabla;
+            Traza.info("   ✅ Tabla LR construida exitosamente");
 
             // 3. Análisis léxico REAL
-            System.out.println("\n🔤 FASE 3: Análisis Léxico...");
-            programa = Files.readString(Path.of(rutaCodigo));
-            lexer analizadorLexico = new lexer(programa);
-            tokensReales = analizadorLexico.scanTokens();
-            System.out.println("   ✅ Tokens generados: " + tokensReales.size());
+            Traza.info("\n🔤 FASE 3: Análisis Léxico...");
+            Path rutaPrograma = Path.of(rutaCodigo);
+            lexer analizadorLexico = (Files.size(rutaPrograma) >= UMBRAL_MAPEO)
+                    ? lexer.mapeado(rutaPrograma)
+                    : new lexer(Files.readString(rutaPrograma));
+            TokenBuffer bufferTokens = analizadorLexico.scanTokenBuffer();
+            tokensReales = bufferTokens.comoLista();
+            Traza.info("   ✅ Tokens generados: " + tokensReales.size());
 
             // 4. Construir tabla de símbolos
-            System.out.println("\n📋 FASE 4: Construyendo tabla de símbolos...");
-            construirTablaSimbolos(tokensReales);
-            System.out.println("   ✅ Símbolos únicos: " + tablaSimbolos.size());
+            Traza.info("\n📋 FASE 4: Construyendo tabla de símbolos...");
+            construirTablaSimbolos(bufferTokens);
+            Traza.info("   ✅ Símbolos únicos: " + tablaSimbolos.size());
 
             // 5. Detectar errores léxicos
-            System.out.println("\n⚠️  FASE 5: Verificando errores léxicos...");
-            detectarErroresLexicos(tokensReales);
+            Traza.info("\n⚠️  FASE 5: Verificando errores léxicos...");
+            detectarErroresLexicos(bufferTokens);
 
             // 6. Convertir tokens
-            System.out.println("\n🔄 FASE 6: Convirtiendo tokens para análisis sintáctico...");
+            Traza.info("\n🔄 FASE 6: Convirtiendo tokens para análisis sintáctico...");
             tokensSemanticos = convertirTokens(tokensReales);
 
             // 7. Cargar producciones
-            System.out.println("\n📝 FASE 7: Cargando producciones de la gramática...");
-            gAug = grammar.parseAugmentedGrammar(RUTA_GRAMATICA);
-            rules = obtenerProducciones(gAug);
-            System.out.println("   ✅ Producciones cargadas: " + rules.size());
+            Traza.info("\n📝 FASE 7: Cargando producciones de la gramática...");
+            gAug = lenguaje.gramatica;
+            rules = lenguaje.reglas;
+            Traza.info("   ✅ Producciones cargadas: " + rules.size());
 
             // 8. Análisis sintáctico-semántico (PUEDE FALLAR)
-            System.out.println("\n⚙️  FASE 8: Análisis Sintáctico-Semántico LR...");
+            Traza.info("\n⚙️  FASE 8: Análisis Sintáctico-Semántico LR...");
             try {
-                analizarConSemantica(tableLR, tokensSemanticos, rules);
-                System.out.println("   ✅ Análisis completado - Pasos: " + corrida.size());
+                analizarConSemantica(tableLR, tokensSemanticos.iterator(), rules);
+                Traza.info("   ✅ Análisis completado - Pasos: " + corrida.size());
             } catch (Exception ex) {
                 // ✅ CAPTURAR ERROR PERO CONTINUAR CON RESULTADOS PARCIALES
-                System.err.println("   ❌ ERROR en análisis sintáctico-semántico: " + ex.getMessage());
+                Traza.error("   ❌ ERROR en análisis sintáctico-semántico: " + ex.getMessage());
                 erroresSemanticos.add("Error sintáctico-semántico: " + ex.getMessage());
 
                 // NO lanzar excepción, continuar con resultados parciales
@@ -104,7 +114,7 @@ public class AnalizadorSemanticoLRFinal {
 
         } catch (Exception ex) {
             // ✅ Error en fases tempranas (léxico, carga de archivos, etc.)
-            System.err.println("\n❌ ERROR CRÍTICO en fase inicial: " + ex.getMessage());
+            Traza.error("\n❌ ERROR CRÍTICO en fase inicial: " + ex.getMessage());
             erroresSemanticos.add("Error crítico: " + ex.getMessage());
             ex.printStackTrace();
 
@@ -112,23 +122,102 @@ public class AnalizadorSemanticoLRFinal {
         }
 
         // ============ DEBUG: VER QUÉ HAY EN LA PILA ============
-        System.out.println("\n🔍 DEBUG: Contenido de la pila semántica:");
-        System.out.println("   Tamaño: " + pilaSemantica.size());
-        if (!pilaSemantica.isEmpty()) {
-            System.out.println("   Tope de la pila: " + pilaSemantica.peek());
-            System.out.println("   Contenido completo:");
+        Traza.depuracion("\n🔍 DEBUG: Contenido de la pila semántica:");
+        Traza.depuracion(() -> "   Tamaño: " + pilaSemantica.size());
+        if (!pilaSemantica.isEmpty() && Traza.activo(Traza.Nivel.DEPURACION)) {
+            Traza.depuracion("   Tope de la pila: " + pilaSemantica.peek());
+            Traza.depuracion("   Contenido completo:");
             for (int i = pilaSemantica.size() - 1; i >= 0; i--) {
                 Object elemento = pilaSemantica.get(i);
                 String preview = elemento.toString();
                 if (preview.length() > 100) {
                     preview = preview.substring(0, 100) + "...";
                 }
-                System.out.println("      [" + i + "]: " + preview);
+                Traza.depuracion("      [" + i + "]: " + preview);
             }
         }
 
         // 9. Generar código objeto C++
-        System.out.println("\n🎯 FASE 9: Generando código objeto (C++)...");
+        String codigoGenerado = generarCodigoObjeto();
+
+        // ✅ SIEMPRE RETORNAR UN RESULTADO (incluso si hay errores)
+        Traza.info("\n✅ Retornando resultado del análisis");
+        Traza.info("   - Tokens: " + tokensSemanticos.size());
+        Traza.info("   - Símbolos: " + tablaSimbolos.size());
+        Traza.info("   - Pasos de corrida: " + corrida.size());
+        Traza.info("   - Errores: " + erroresSemanticos.size());
+        Traza.info("   - Código generado: " + (codigoGenerado.isEmpty() ? "NO" : "SÍ"));
+
+        return new ResultadoAnalisisCompleto(
+                tokensSemanticos,
+                corrida,
+                tablaSimbolos,
+                erroresSemanticos,
+                codigoGenerado,
+                tableLR);
+    }
+
+    /**
+     * Análisis en flujo para lotes: el lexer entrega los tokens conforme el
+     * analizador LR los pide, sin materializar la lista de tokens ni la tabla de
+     * símbolos. El resultado no incluye tokens ni símbolos.
+     */
+    public ResultadoAnalisisCompleto analizarFlujo(CharSequence programa) throws Exception {
+        CompiledLanguage lenguaje = CompiledLanguage.obtener(RUTA_GRAMATICA, RUTA_ACCIONES);
+        acciones = lenguaje.acciones;
+        lr0Table.Result tableLR = lenguaje.tabla;
+        List<production> rules = lenguaje.reglas;
+
+        Iterator<token> tokensReales = vigilarErroresLexicos(new lexer(programa));
+        try {
+            analizarConSemantica(tableLR, new FlujoTokensSemanticos(tokensReales), rules);
+        } catch (Exception ex) {
+            Traza.error("   ❌ ERROR en análisis sintáctico-semántico: " + ex.getMessage());
+            erroresSemanticos.add("Error sintáctico-semántico: " + ex.getMessage());
+        }
+
+        String codigoGenerado = generarCodigoObjeto();
+        return new ResultadoAnalisisCompleto(
+                new ArrayList<>(),
+                corrida,
+                tablaSimbolos,
+                erroresSemanticos,
+                codigoGenerado,
+                tableLR);
+    }
+
+    /**
+     * Registra los errores léxicos conforme pasan los tokens (equivalente en flujo
+     * de detectarErroresLexicos)
+     */
+    private Iterator<token> vigilarErroresLexicos(lexer fuente) {
+        return new Iterator<token>() {
+            @Override
+            public boolean hasNext() {
+                return fuente.hasNext();
+            }
+
+            @Override
+            public token next() {
+                token t = fuente.next();
+                if (t.tipo == tipoToken.DESCONOCIDO) {
+                    erroresSemanticos.add(posicion(t.linea, fuente.lineas().columna(t.columna))
+                            + ": Token desconocido '" + t.lexema + "'");
+                }
+                if (t.tipo == tipoToken.ERROR_DE_CADENA) {
+                    erroresSemanticos.add(posicion(t.linea, fuente.lineas().columna(t.columna))
+                            + ": Cadena sin cerrar '" + t.lexema + "'");
+                }
+                return t;
+            }
+        };
+    }
+
+    /**
+     * Generar el código objeto C++ a partir del tope de la pila semántica
+     */
+    private String generarCodigoObjeto() {
+        Traza.info("\n🎯 FASE 9: Generando código objeto (C++)...");
         String codigoGenerado = "";
 
         try {
@@ -136,10 +225,10 @@ public class AnalizadorSemanticoLRFinal {
                 Object topePila = pilaSemantica.peek();
                 codigoGenerado = safeString(topePila);
 
-                System.out.println("   ✅ Código extraído de la pila semántica");
-                System.out.println("   📏 Longitud: " + codigoGenerado.length() + " caracteres");
+                Traza.info("   ✅ Código extraído de la pila semántica");
+                Traza.info("   📏 Longitud: " + codigoGenerado.length() + " caracteres");
             } else {
-                System.out.println("   ⚠️  Pila semántica vacía - no hay código generado");
+                Traza.info("   ⚠️  Pila semántica vacía - no hay código generado");
             }
 
             // Limpiar duplicados de includes
@@ -156,7 +245,7 @@ public class AnalizadorSemanticoLRFinal {
 
             if (codigoGenerado.isEmpty() || codigoGenerado.contains("IDENTIFICADOR.")
                     || codigoGenerado.contains(".trad")) {
-                System.out.println("   ⚠️  Código contiene referencias sin evaluar o está vacío");
+                Traza.info("   ⚠️  Código contiene referencias sin evaluar o está vacío");
                 if (!erroresSemanticos.isEmpty()) {
                     codigoGenerado = "// Análisis interrumpido por errores\n// No se pudo generar código C++ completo\n\n// Errores:\n";
                     for (String error : erroresSemanticos) {
@@ -164,89 +253,54 @@ public class AnalizadorSemanticoLRFinal {
                     }
                 }
             } else {
-                System.out.println("   ✅ Código generado exitosamente");
+                Traza.info("   ✅ Código generado exitosamente");
             }
 
             if (!codigoGenerado.isEmpty()) {
-                System.out.println("\n   📄 CÓDIGO C++ GENERADO:");
-                System.out.println("   " + "=".repeat(60));
-                System.out.println(codigoGenerado);
-                System.out.println("   " + "=".repeat(60));
+                Traza.info("\n   📄 CÓDIGO C++ GENERADO:");
+                Traza.info("   " + "=".repeat(60));
+                Traza.info(codigoGenerado);
+                Traza.info("   " + "=".repeat(60));
             }
 
         } catch (Exception ex) {
-            System.err.println("   ❌ Error al generar código C++: " + ex.getMessage());
+            Traza.error("   ❌ Error al generar código C++: " + ex.getMessage());
             erroresSemanticos.add("Error al generar código: " + ex.getMessage());
         }
 
-        // ✅ SIEMPRE RETORNAR UN RESULTADO (incluso si hay errores)
-        System.out.println("\n✅ Retornando resultado del análisis");
-        System.out.println("   - Tokens: " + tokensSemanticos.size());
-        System.out.println("   - Símbolos: " + tablaSimbolos.size());
-        System.out.println("   - Pasos de corrida: " + corrida.size());
-        System.out.println("   - Errores: " + erroresSemanticos.size());
-        System.out.println("   - Código generado: " + (codigoGenerado.isEmpty() ? "NO" : "SÍ"));
-
-        return new ResultadoAnalisisCompleto(
-                tokensSemanticos,
-                corrida,
-                tablaSimbolos,
-                erroresSemanticos,
-                codigoGenerado,
-                tableLR);
-    }
-
-    /**
-     * Cargar acciones semánticas desde archivo
-     */
-    private void cargarAcciones(String rutaArchivo) throws Exception {
-        String contenido = Files.readString(Path.of(rutaArchivo));
-        String[] lineas = contenido.split("\n");
-
-        for (String linea : lineas) {
-            linea = linea.trim();
-            if (linea.isEmpty() || linea.startsWith("//"))
-                continue;
-
-            int idx = linea.indexOf('{');
-            if (idx == -1)
-                continue;
-
-            String produccion = linea.substring(0, idx).trim();
-            String codigo = linea.substring(idx + 1, linea.lastIndexOf('}')).trim();
-
-            produccion = normalizarPrima(produccion);
-            codigo = normalizarPrima(codigo);
-
-            acciones.put(produccion, new AccionSemantica(produccion, codigo));
-        }
-
-        System.out.println("   ✅ Acciones semánticas cargadas: " + acciones.size());
+        return codigoGenerado;
     }
 
     /**
      * Construir tabla de símbolos desde tokens - VERSIÓN MEJORADA
      * Detecta tipos, valores y contexto de las variables
      */
-    private void construirTablaSimbolos(List<token> tokens) {
+    private void construirTablaSimbolos(TokenBuffer tokens) {
+        List<token> vista = tokens.comoLista();
+        // Identificadores ya procesados, por id de la tabla de nombres del lexer
+        BitSet vistos = new BitSet(tokens.nombres().size());
         for (int i = 0; i < tokens.size(); i++) {
-            token t = tokens.get(i);
-
             // Solo procesar identificadores
-            if (t.tipo != tipoToken.IDENTIFICADOR) {
+            if (tokens.tipo(i) != tipoToken.IDENTIFICADOR) {
                 continue;
             }
 
             // Si ya existe, saltar
-            if (tablaSimbolos.existe(t.lexema)) {
+            int simbolo = tokens.simbolo(i);
+            if (vistos.get(simbolo)) {
+                continue;
+            }
+            vistos.set(simbolo);
+            String nombre = tokens.lexema(i);
+            if (tablaSimbolos.existe(nombre)) {
                 continue;
             }
 
             // Intentar detectar el tipo y valor
-            String tipo = detectarTipo(tokens, i);
-            String valor = detectarValor(tokens, i);
+            String tipo = detectarTipo(vista, i);
+            String valor = detectarValor(vista, i);
 
-            tablaSimbolos.agregar(t.lexema, tipo, valor, t.linea);
+            tablaSimbolos.agregar(nombre, tipo, valor, tokens.linea(i));
         }
     }
 
@@ -415,66 +469,123 @@ public class AnalizadorSemanticoLRFinal {
     /**
      * Detectar errores léxicos
      */
-    private void detectarErroresLexicos(List<token> tokens) {
-        for (token t : tokens) {
-            if (t.tipo == tipoToken.DESCONOCIDO) {
-                String error = "Línea " + t.linea + ": Token desconocido '" + t.lexema + "'";
+    private void detectarErroresLexicos(TokenBuffer tokens) {
+        for (int i = 0; i < tokens.size(); i++) {
+            tipoToken tipo = tokens.tipo(i);
+            if (tipo == tipoToken.DESCONOCIDO) {
+                String error = posicion(tokens.linea(i), tokens.columnaEnLinea(i))
+                        + ": Token desconocido '" + tokens.lexema(i) + "'";
                 erroresSemanticos.add(error);
-                System.out.println("   ❌ " + error);
+                Traza.error("   ❌ " + error);
             }
-            if (t.tipo == tipoToken.ERROR_DE_CADENA) {
-                String error = "Línea " + t.linea + ": Cadena sin cerrar '" + t.lexema + "'";
+            if (tipo == tipoToken.ERROR_DE_CADENA) {
+                String error = posicion(tokens.linea(i), tokens.columnaEnLinea(i))
+                        + ": Cadena sin cerrar '" + tokens.lexema(i) + "'";
                 erroresSemanticos.add(error);
-                System.out.println("   ❌ " + error);
+                Traza.error("   ❌ " + error);
             }
         }
 
         if (erroresSemanticos.isEmpty()) {
-            System.out.println("   ✅ No se encontraron errores léxicos");
+            Traza.info("   ✅ No se encontraron errores léxicos");
         }
     }
 
+    private static String posicion(int linea, int columna) {
+        return "Línea " + linea + ", columna " + columna;
+    }
+
     /**
      * Convertir tokens del lexer a tokens semánticos
      * CON SOPORTE PARA System.out.println Y main
      */
     private List<TokenSemantico> convertirTokens(List<token> tokensReales) {
         List<TokenSemantico> resultado = new ArrayList<>();
+        new FlujoTokensSemanticos(tokensReales.iterator()).forEachRemaining(resultado::add);
 
-        int i = 0;
-        while (i < tokensReales.size()) {
-            token t = tokensReales.get(i);
+        Traza.info("   📊 Total tokens convertidos: " + resultado.size());
+
+        return resultado;
+    }
+
+    /**
+     * Conversión en flujo de tokens del lexer a tokens semánticos.
+     * Solo retiene los 5 tokens necesarios para reconocer System.out.println.
+     */
+    private class FlujoTokensSemanticos implements Iterator<TokenSemantico> {
+        private static final int PREANALISIS = 5;
+
+        private final Iterator<token> fuente;
+        private final Deque<token> pendientes = new ArrayDeque<>();
+        private TokenSemantico ultimo = null;
+        private boolean eofAgregado = false;
+
+        FlujoTokensSemanticos(Iterator<token> fuente) {
+            this.fuente = fuente;
+        }
+
+        private void rellenar() {
+            while (pendientes.size() < PREANALISIS && fuente.hasNext()) {
+                pendientes.addLast(fuente.next());
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            rellenar();
+            if (!pendientes.isEmpty()) {
+                return true;
+            }
+            // Agregar EOF si no existe
+            return !eofAgregado && (ultimo == null || !ultimo.token.equals("EOF"));
+        }
+
+        @Override
+        public TokenSemantico next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (pendientes.isEmpty()) {
+                eofAgregado = true;
+                ultimo = new TokenSemantico("EOF", "$", "$", -1);
+                return ultimo;
+            }
+            ultimo = convertir();
+            return ultimo;
+        }
+
+        private TokenSemantico convertir() {
+            token t = pendientes.pollFirst();
 
             // ============ DETECTAR System.out.println() ============
             // En convertirTokens(), después de crear el token:
             if (t.tipo == tipoToken.LITERAL_CADENA) {
-                System.out.println("   🔍 DEBUG LITERAL_CADENA: [" + t.lexema + "]");
+                Traza.depuracion(() -> "   🔍 DEBUG LITERAL_CADENA: [" + t.lexema + "]");
             }
-            if (t.tipo == tipoToken.SYSTEM && i + 4 < tokensReales.size()) {
-                token t1 = tokensReales.get(i + 1);
-                token t2 = tokensReales.get(i + 2);
-                token t3 = tokensReales.get(i + 3);
-                token t4 = tokensReales.get(i + 4);
+            if (t.tipo == tipoToken.SYSTEM && pendientes.size() >= PREANALISIS - 1) {
+                Iterator<token> sig = pendientes.iterator();
+                token t1 = sig.next();
+                token t2 = sig.next();
+                token t3 = sig.next();
+                token t4 = sig.next();
 
                 if (t1.tipo == tipoToken.PUNTO &&
                         t2.tipo == tipoToken.OUT &&
                         t3.tipo == tipoToken.PUNTO &&
                         t4.tipo == tipoToken.PRINTLN) {
 
-                    resultado.add(new TokenSemantico("IDENTIFICADOR", "println", "println", t.linea));
-                    System.out.println("   ✅ System.out.println → println (línea " + t.linea + ")");
-
-                    i += 5;
-                    continue;
+                    Traza.depuracion(() -> "   ✅ System.out.println → println (línea " + t.linea + ")");
+                    for (int k = 0; k < PREANALISIS - 1; k++) {
+                        pendientes.pollFirst();
+                    }
+                    return new TokenSemantico("IDENTIFICADOR", "println", "println", t.linea);
                 }
             }
 
             // ============ CONVERTIR MAIN A IDENTIFICADOR ============
             if (t.tipo == tipoToken.MAIN) {
-                resultado.add(new TokenSemantico("IDENTIFICADOR", "main", "main", t.linea));
-                System.out.println("   ✅ main (palabra reservada) → main (identificador) (línea " + t.linea + ")");
-                i++;
-                continue;
+                Traza.depuracion(() -> "   ✅ main (palabra reservada) → main (identificador) (línea " + t.linea + ")");
+                return new TokenSemantico("IDENTIFICADOR", "main", "main", t.linea);
             }
 
             // Token normal
@@ -482,18 +593,8 @@ public class AnalizadorSemanticoLRFinal {
             String lexema = t.lexema;
             Object valor = obtenerValorToken(t);
 
-            resultado.add(new TokenSemantico(tokenNombre, lexema, valor, t.linea));
-            i++;
-        }
-
-        // Agregar EOF si no existe
-        if (resultado.isEmpty() || !resultado.get(resultado.size() - 1).token.equals("EOF")) {
-            resultado.add(new TokenSemantico("EOF", "$", "$", -1));
+            return new TokenSemantico(tokenNombre, lexema, valor, t.linea);
         }
-
-        System.out.println("   📊 Total tokens convertidos: " + resultado.size());
-
-        return resultado;
     }
 
     /**
@@ -730,45 +831,36 @@ public class AnalizadorSemanticoLRFinal {
         }
     }
 
-    /**
-     * Obtener producciones de la gramática
-     */
-    private List<production> obtenerProducciones(grammar gAug) {
-        List<production> rules = new ArrayList<>();
-        for (String A : gAug.byLeft.keySet()) {
-            if (A.endsWith("'"))
-                continue;
-            rules.addAll(gAug.byLeft.get(A));
-        }
-        return rules;
-    }
-
     /**
      * Motor del análisis LR con pila semántica - VERSIÓN CORREGIDA
      */
-    private void analizarConSemantica(lr0Table.Result table, List<TokenSemantico> tokens,
+    private void analizarConSemantica(lr0Table.Result table, Iterator<TokenSemantico> tokens,
             List<production> rules) throws Exception {
 
+        tablaDensa densa = table.densa;
         Deque<Object> pilaSintactica = new ArrayDeque<>();
         pilaSintactica.push(0);
         pilaSemantica.clear();
         corrida.clear();
 
-        int ptr = 0;
+        // Solo se retiene el preanálisis más los tokens que muestra la columna ENTRADA
+        Deque<TokenSemantico> ventana = new ArrayDeque<>();
+        rellenarVentana(ventana, tokens);
         int paso = 1;
 
         while (true) {
             int estado = (int) pilaSintactica.peek();
-            String simboloActual = (ptr < tokens.size()) ? tokens.get(ptr).token : "$";
+            TokenSemantico actual = ventana.peekFirst();
+            String simboloActual = (actual != null) ? actual.token : "$";
 
-            String accion = table.action.getOrDefault(estado, Map.of()).get(simboloActual);
+            int accion = densa.accion(estado, densa.terminal(simboloActual));
 
-            String entradaStr = construirCadenaEntrada(tokens, ptr);
+            String entradaStr = construirCadenaEntrada(ventana);
             String pilaStr = renderPila(pilaSintactica);
 
-            if (accion == null || accion.isBlank()) {
-                String lexema = (ptr < tokens.size()) ? tokens.get(ptr).lexema : "$";
-                int linea = (ptr < tokens.size()) ? tokens.get(ptr).linea : -1;
+            if (accion == tablaDensa.ERROR) {
+                String lexema = (actual != null) ? actual.lexema : "$";
+                int linea = (actual != null) ? actual.linea : -1;
 
                 // ✅ Agregar paso de error a la corrida
                 corrida.add(new PasoAnalisis(paso++, pilaStr, entradaStr,
@@ -781,11 +873,11 @@ public class AnalizadorSemanticoLRFinal {
                 throw new Exception(error);
             }
 
-            if (accion.startsWith("d")) {
+            if (tablaDensa.esDesplazar(accion)) {
                 // DESPLAZAMIENTO
-                int j = Integer.parseInt(accion.substring(1));
+                int j = tablaDensa.estado(accion);
 
-                Object valor = tokens.get(ptr).valor;
+                Object valor = actual.valor;
                 pilaSemantica.push(valor);
 
                 pilaSintactica.push(simboloActual);
@@ -794,13 +886,14 @@ public class AnalizadorSemanticoLRFinal {
                 corrida.add(new PasoAnalisis(paso++, pilaStr, entradaStr,
                         "Desplazar " + j, ""));
 
-                ptr++;
+                ventana.pollFirst();
+                rellenarVentana(ventana, tokens);
                 continue;
             }
 
-            if (accion.startsWith("r")) {
+            if (tablaDensa.esReducir(accion)) {
                 // REDUCCIÓN
-                int k = Integer.parseInt(accion.substring(1));
+                int k = tablaDensa.regla(accion);
                 production prod = rules.get(k - 1);
 
                 int betaLen = calcularLongitud(prod.right);
@@ -816,9 +909,9 @@ public class AnalizadorSemanticoLRFinal {
 
                 int j = (int) pilaSintactica.peek();
                 pilaSintactica.push(prod.left);
-                Integer nuevoEstado = table.gotoTable.getOrDefault(j, Map.of()).get(prod.left);
+                int nuevoEstado = densa.irADespuesDe(j, k, prod.left);
 
-                if (nuevoEstado == null) {
+                if (nuevoEstado == tablaDensa.SIN_IR_A) {
                     String error = "GOTO[" + j + ", " + prod.left + "] no definido";
                     corrida.add(new PasoAnalisis(paso++, pilaStr, entradaStr,
                             "ERROR", error));
@@ -835,14 +928,9 @@ public class AnalizadorSemanticoLRFinal {
                 continue;
             }
 
-            if (accion.equalsIgnoreCase("acep") || accion.equalsIgnoreCase("aceptar")) {
-                corrida.add(new PasoAnalisis(paso++, pilaStr, entradaStr,
-                        "Aceptar", "✅ Análisis completado exitosamente"));
-                break;
-            }
-
+            // Lo único que queda es ACEPTAR
             corrida.add(new PasoAnalisis(paso++, pilaStr, entradaStr,
-                    accion, ""));
+                    "Aceptar", "✅ Análisis completado exitosamente"));
             break;
         }
     }
@@ -904,25 +992,26 @@ public class AnalizadorSemanticoLRFinal {
      */
     private String ejecutarAccion(production prod, int betaLen) {
         String produccionStr = prod.left + " -> " + String.join(" ", prod.right);
-        if (produccionStr.contains("IF") && produccionStr.contains("ELSE")) {
-            System.out.println("\n🔍 DEBUG IF-ELSE:");
-            System.out.println("   Producción: " + produccionStr);
-            System.out.println("   Valores en pila:");
+        if (Traza.activo(Traza.Nivel.DEPURACION)
+                && produccionStr.contains("IF") && produccionStr.contains("ELSE")) {
+            Traza.depuracion("\n🔍 DEBUG IF-ELSE:");
+            Traza.depuracion("   Producción: " + produccionStr);
+            Traza.depuracion("   Valores en pila:");
             for (int i = 0; i < Math.min(betaLen, pilaSemantica.size()); i++) {
                 Object val = pilaSemantica.get(pilaSemantica.size() - betaLen + i);
-                System.out.println("      [" + i + "]: " + val);
+                Traza.depuracion("      [" + i + "]: " + val);
             }
         }
-        produccionStr = normalizarPrima(produccionStr);
+        produccionStr = CompiledLanguage.normalizarPrima(produccionStr);
 
         AccionSemantica accion = acciones.get(produccionStr);
 
         // Protección contra pila insuficiente
         if (pilaSemantica.size() < betaLen) {
-            System.err.println("\n   ⚠️  WARNING: Pila semántica insuficiente");
-            System.err.println("      Producción: " + produccionStr);
-            System.err.println("      Se necesitan: " + betaLen + " elementos");
-            System.err.println("      Disponibles: " + pilaSemantica.size());
+            Traza.error("\n   ⚠️  WARNING: Pila semántica insuficiente");
+            Traza.error("      Producción: " + produccionStr);
+            Traza.error("      Se necesitan: " + betaLen + " elementos");
+            Traza.error("      Disponibles: " + pilaSemantica.size());
 
             List<Object> valores = new ArrayList<>();
             int disponibles = Math.min(pilaSemantica.size(), betaLen);
@@ -1201,7 +1290,7 @@ public class AnalizadorSemanticoLRFinal {
         Map<String, Integer> contadores = new HashMap<>();
 
         for (int i = 0; i < simbolos.size() && i < valores.size(); i++) {
-            String simbolo = normalizarPrima(simbolos.get(i));
+            String simbolo = CompiledLanguage.normalizarPrima(simbolos.get(i));
 
             // Ignorar epsilon
             if (simbolo.equals("ε") || simbolo.equalsIgnoreCase("epsilon")) {
@@ -1415,12 +1504,25 @@ public class AnalizadorSemanticoLRFinal {
         return sb.toString();
     }
 
-    private String construirCadenaEntrada(List<TokenSemantico> tokens, int desde) {
+    private static final int TOKENS_ENTRADA = 10;
+
+    private void rellenarVentana(Deque<TokenSemantico> ventana, Iterator<TokenSemantico> tokens) {
+        // Uno más de los que se muestran para saber si hay que poner "..."
+        while (ventana.size() <= TOKENS_ENTRADA && tokens.hasNext()) {
+            ventana.addLast(tokens.next());
+        }
+    }
+
+    private String construirCadenaEntrada(Deque<TokenSemantico> ventana) {
         StringBuilder sb = new StringBuilder();
-        for (int i = desde; i < Math.min(desde + 10, tokens.size()); i++) {
-            sb.append(tokens.get(i).token).append(" ");
+        int mostrados = 0;
+        for (TokenSemantico t : ventana) {
+            if (mostrados++ == TOKENS_ENTRADA) {
+                break;
+            }
+            sb.append(t.token).append(" ");
         }
-        if (desde + 10 < tokens.size()) {
+        if (ventana.size() > TOKENS_ENTRADA) {
             sb.append("...");
         }
         return sb.toString().trim();
@@ -1585,44 +1687,6 @@ public class AnalizadorSemanticoLRFinal {
 
     // ==================== AGREGAR ESTAS CLASES Y MÉTODOS ====================
 
-    /**
-     * Normalizar caracteres prima/apostrofe a estándar
-     */
-    private String normalizarPrima(String texto) {
-        return texto
-                .replace("′", "'")
-                .replace("´", "'")
-                .replace("ʹ", "'")
-                .replace("ˊ", "'")
-                .replace("'", "'");
-    }
-
-    /**
-     * Clase para representar una acción semántica
-     */
-    private static class AccionSemantica {
-        private String produccion;
-        private String codigo;
-
-        public AccionSemantica(String produccion, String codigo) {
-            this.produccion = produccion;
-            this.codigo = codigo;
-        }
-
-        public String getProduccion() {
-            return produccion;
-        }
-
-        public String getCodigo() {
-            return codigo;
-        }
-
-        @Override
-        public String toString() {
-            return produccion + " { " + codigo + " }";
-        }
-    }
-
     /**
      * Convertir declaración de array de Java a C++
      * int[] x → int* x
@@ -1718,7 +1782,7 @@ public class AnalizadorSemanticoLRFinal {
         if (tipoRetorno.equals("void") && !expresionRetorno.isEmpty() && !expresionRetorno.equals("0")) {
             String error = "Línea " + linea + ": Método void no puede retornar un valor";
             erroresSemanticos.add(error);
-            System.err.println("   ❌ " + error);
+            Traza.error("   ❌ " + error);
         }
     }
 
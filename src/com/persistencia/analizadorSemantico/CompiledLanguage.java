@@ -0,0 +1,180 @@
+package com.persistencia.analizadorSemantico;
+
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.LR0Automaton;
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.grammar;
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.production;
+import com.persistencia.analizadorSintacticoLR.tablaLR.cacheTabla;
+import com.persistencia.analizadorSintacticoLR.tablaLR.lr0Table;
+import com.persistencia.traza.Traza;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lenguaje ya compilado: gramática aumentada, autómata LR(0), reglas numeradas, tabla
+ * LR(0) y acciones semánticas. Se guarda en un registro de todo el proceso con clave el SHA-256 del
+ * contenido de los archivos, así que volver a analizar con la misma gramática (aunque
+ * sea desde otra ruta o un archivo temporal nuevo) no vuelve a construir nada.
+ *
+ * Además, la tabla se guarda junto a la gramática ({@link cacheTabla}): en una ejecución
+ * nueva se carga del disco si el hash coincide, y el autómata se construye solo si alguien
+ * lo pide con {@link #automata()}.
+ *
+ * La gramática y las acciones se registran por separado: el mismo archivo de acciones
+ * se reutiliza con cualquier gramática. El registro es seguro para hilos; los objetos
+ * que devuelve se comparten y no deben modificarse. Se compila fuera del mapa (no dentro de
+ * computeIfAbsent, que retendría la cubeta mientras dura): si dos hilos piden a la vez la
+ * misma gramática pueden compilarla los dos, y queda la primera que se registra.
+ */
+public final class CompiledLanguage {
+
+    // Con más entradas que estas el registro se vacía (las gramáticas editadas en la GUI generan una nueva cada vez)
+    private static final int MAX_ENTRADAS = 64;
+
+    private static final Map<String, CompiledLanguage> GRAMATICAS = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, AccionSemantica>> ACCIONES = new ConcurrentHashMap<>();
+
+    public final grammar gramatica;
+    public final List<production> reglas;          // regla k = reglas.get(k - 1)
+    public final lr0Table.Result tabla;
+    public final Map<String, AccionSemantica> acciones;
+
+    private final CompiledLanguage origen;         // el que guarda el autómata (this, salvo con acciones)
+    private volatile LR0Automaton automata;         // null hasta que se pide, si la tabla vino del disco
+
+    private CompiledLanguage(grammar gramatica, LR0Automaton automata, lr0Table.Result tabla,
+                             Map<String, AccionSemantica> acciones, CompiledLanguage origen) {
+        this.gramatica = gramatica;
+        this.automata = automata;
+        this.reglas = tabla.rules;
+        this.tabla = tabla;
+        this.acciones = acciones;
+        this.origen = (origen != null) ? origen : this;
+    }
+
+    /** Autómata LR(0) de la gramática; se construye la primera vez si la tabla vino de la caché. */
+    public LR0Automaton automata() {
+        if (origen != this) return origen.automata();
+        LR0Automaton a = automata;
+        if (a == null) {
+            synchronized (this) {
+                a = automata;
+                if (a == null) automata = a = LR0Automaton.construir(gramatica);
+            }
+        }
+        return a;
+    }
+
+    /** Lenguaje de la gramática, sin acciones. */
+    public static CompiledLanguage obtener(String rutaGramatica) throws IOException {
+        Path ruta = Path.of(rutaGramatica);
+        String contenido = Files.readString(ruta);
+        String clave = hash(contenido);
+        CompiledLanguage lenguaje = GRAMATICAS.get(clave);
+        if (lenguaje == null) {
+            if (GRAMATICAS.size() >= MAX_ENTRADAS) GRAMATICAS.clear();
+            CompiledLanguage nuevo = compilar(contenido, ruta, clave);
+            lenguaje = GRAMATICAS.putIfAbsent(clave, nuevo);
+            if (lenguaje == null) lenguaje = nuevo;
+        }
+        return lenguaje;
+    }
+
+    /** Lenguaje de la gramática con las acciones semánticas del archivo dado. */
+    public static CompiledLanguage obtener(String rutaGramatica, String rutaAcciones) throws IOException {
+        CompiledLanguage base = obtener(rutaGramatica);
+        return new CompiledLanguage(base.gramatica, null, base.tabla, acciones(rutaAcciones), base);
+    }
+
+    /** Acciones semánticas del archivo (producción normalizada → acción), leídas una vez por contenido. */
+    public static Map<String, AccionSemantica> acciones(String rutaAcciones) throws IOException {
+        String contenido = Files.readString(Path.of(rutaAcciones));
+        String clave = hash(contenido);
+        Map<String, AccionSemantica> acciones = ACCIONES.get(clave);
+        if (acciones == null) {
+            if (ACCIONES.size() >= MAX_ENTRADAS) ACCIONES.clear();
+            Map<String, AccionSemantica> nuevas = parsearAcciones(contenido);
+            acciones = ACCIONES.putIfAbsent(clave, nuevas);
+            if (acciones == null) acciones = nuevas;
+        }
+        return acciones;
+    }
+
+    /** Descarta todo lo compilado (p. ej. tras cambiar el código de construcción en caliente). */
+    public static void limpiar() {
+        GRAMATICAS.clear();
+        ACCIONES.clear();
+    }
+
+    /** Tabla desde la caché en disco si está al día; si no, se construye y se guarda. */
+    private static CompiledLanguage compilar(String contenido, Path ruta, String clave) {
+        grammar gramatica = grammar.parseAugmentedGrammarText(contenido);
+        Path archivo = cacheTabla.rutaPara(ruta);
+        lr0Table.Result tabla = cacheTabla.leer(archivo, clave, lr0Table.rules(gramatica));
+        if (tabla != null) {
+            Traza.info("   📦 Tabla LR(0) cargada de " + archivo.getFileName());
+            return new CompiledLanguage(gramatica, null, tabla, Collections.emptyMap(), null);
+        }
+
+        Traza.info("   ⚙️  Compilando gramática (primer uso)...");
+        LR0Automaton automata = LR0Automaton.construir(gramatica);
+        tabla = lr0Table.build(automata);
+        try {
+            cacheTabla.escribir(archivo, clave, tabla);
+        } catch (IOException e) {
+            // Sin caché (carpeta de solo lectura, etc.): la próxima vez se vuelve a construir
+            Traza.info("   ⚠️  No se pudo guardar " + archivo + ": " + e.getMessage());
+        }
+        return new CompiledLanguage(gramatica, automata, tabla, Collections.emptyMap(), null);
+    }
+
+    /** Formato: una acción por línea, "producción { código }"; las líneas con // se ignoran. */
+    private static Map<String, AccionSemantica> parsearAcciones(String contenido) {
+        Map<String, AccionSemantica> acciones = new LinkedHashMap<>();
+        for (String linea : contenido.split("\n")) {
+            linea = linea.trim();
+            if (linea.isEmpty() || linea.startsWith("//")) continue;
+
+            int idx = linea.indexOf('{');
+            if (idx == -1) continue;
+
+            String produccion = normalizarPrima(linea.substring(0, idx).trim());
+            String codigo = normalizarPrima(linea.substring(idx + 1, linea.lastIndexOf('}')).trim());
+
+            acciones.put(produccion, new AccionSemantica(produccion, codigo));
+            Traza.depuracion(() -> "   ✅ [" + produccion + "] -> " + codigo);
+        }
+        return Collections.unmodifiableMap(acciones);
+    }
+
+    /**
+     * Las distintas primas (′ ´ ʹ ˊ) se escriben como apóstrofo simple; la usan también los
+     * analizadores, para que producciones y acciones se busquen con la misma clave.
+     */
+    static String normalizarPrima(String texto) {
+        return texto
+            .replace("′", "'")
+            .replace("´", "'")
+            .replace("ʹ", "'")
+            .replace("ˊ", "'");
+    }
+
+    private static String hash(String contenido) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha.digest(contenido.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
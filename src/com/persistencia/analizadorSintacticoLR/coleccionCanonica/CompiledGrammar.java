@@ -0,0 +1,244 @@
+package com.persistencia.analizadorSintacticoLR.coleccionCanonica;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gramática aumentada compilada a enteros, compartida por los algoritmos LR.
+ *
+ * Cada símbolo tiene un id denso: primero los no terminales (orden de N), luego los
+ * terminales (orden de T) y al final cualquier otro símbolo que solo aparezca en los
+ * lados derechos (ε, "$" no declarado, etc.). Cada producción distinta tiene un id y su
+ * lado derecho es un int[]; las de un mismo no terminal quedan contiguas, en el orden
+ * de {@link grammar#byLeft}. Las producciones repetidas comparten id, igual que antes
+ * compartían ítems por equals().
+ *
+ * Los ítems LR(0) también son enteros: item(p, punto) = inicioItems[p] + punto, de modo
+ * que avanzar el punto es sumar 1. Para la cerradura, cada no terminal guarda los ítems
+ * con el punto al inicio de sus producciones ({@link #predichos}).
+ *
+ * Los arreglos que se devuelven son los internos: no deben modificarse.
+ */
+public final class CompiledGrammar {
+
+    public final grammar fuente;
+
+    private final String[] nombres;
+    private final Map<String, Integer> ids;
+    private final BitSet terminales;
+    private final BitSet noTerminales;
+    private final int epsilon;
+
+    // Producciones
+    private final production[] producciones;
+    private final int[] izquierda;
+    private final int[][] derecha;
+    private final int[] primeraProduccion;   // por símbolo; vacío para los que no son no terminales
+    private final int[] finProducciones;
+    private final Map<production, Integer> idProduccion;
+    private final int produccionInicial;
+
+    // Ítems
+    private final int[] inicioItems;
+    private final int[] itemProduccion;
+    private final int[] itemPunto;
+    private final int[] trasPunto;           // símbolo después del punto, o -1
+    private final int[][] predichos;         // por símbolo: ítems A → •α de sus producciones
+
+    private CompiledGrammar(grammar g) {
+        this.fuente = g;
+
+        // Símbolos
+        List<String> lista = new ArrayList<>();
+        ids = new HashMap<>();
+        for (String a : g.N) registrar(a, lista);
+        for (String a : g.T) registrar(a, lista);
+        for (production p : g.all) {
+            for (String x : p.right) registrar(x, lista);
+        }
+        nombres = lista.toArray(new String[0]);
+        noTerminales = new BitSet(nombres.length);
+        terminales = new BitSet(nombres.length);
+        for (String a : g.N) noTerminales.set(ids.get(a));
+        for (String a : g.T) terminales.set(ids.get(a));
+        epsilon = ids.getOrDefault(grammar.EPS, -1);
+
+        // Producciones agrupadas por lado izquierdo, sin repetidas
+        List<production> distintas = new ArrayList<>();
+        idProduccion = new HashMap<>();
+        primeraProduccion = new int[nombres.length];
+        finProducciones = new int[nombres.length];
+        for (Map.Entry<String, List<production>> e : g.byLeft.entrySet()) {
+            int A = ids.get(e.getKey());
+            primeraProduccion[A] = distintas.size();
+            for (production p : e.getValue()) {
+                if (idProduccion.putIfAbsent(p, distintas.size()) == null) distintas.add(p);
+            }
+            finProducciones[A] = distintas.size();
+        }
+        producciones = distintas.toArray(new production[0]);
+        izquierda = new int[producciones.length];
+        derecha = new int[producciones.length][];
+        inicioItems = new int[producciones.length + 1];
+        for (int p = 0; p < producciones.length; p++) {
+            izquierda[p] = ids.get(producciones[p].left);
+            List<String> rhs = producciones[p].right;
+            derecha[p] = new int[rhs.size()];
+            for (int k = 0; k < rhs.size(); k++) derecha[p][k] = ids.get(rhs.get(k));
+            inicioItems[p + 1] = inicioItems[p] + rhs.size() + 1;
+        }
+        produccionInicial = idProduccion.get(g.byLeft.get(g.startPrime).get(0));
+
+        int items = inicioItems[producciones.length];
+        itemProduccion = new int[items];
+        itemPunto = new int[items];
+        trasPunto = new int[items];
+        for (int p = 0; p < producciones.length; p++) {
+            for (int punto = 0; punto <= derecha[p].length; punto++) {
+                int it = inicioItems[p] + punto;
+                itemProduccion[it] = p;
+                itemPunto[it] = punto;
+                trasPunto[it] = (punto < derecha[p].length) ? derecha[p][punto] : -1;
+            }
+        }
+        predichos = new int[nombres.length][];
+        for (int A = 0; A < nombres.length; A++) {
+            int desde = primeraProduccion[A], hasta = finProducciones[A];
+            predichos[A] = new int[hasta - desde];
+            for (int p = desde; p < hasta; p++) predichos[A][p - desde] = inicioItems[p];
+        }
+    }
+
+    private void registrar(String simbolo, List<String> lista) {
+        if (!ids.containsKey(simbolo)) {
+            ids.put(simbolo, lista.size());
+            lista.add(simbolo);
+        }
+    }
+
+    public static CompiledGrammar compilar(grammar g) {
+        return new CompiledGrammar(g);
+    }
+
+    // ==================== SÍMBOLOS ====================
+
+    public int numSimbolos() {
+        return nombres.length;
+    }
+
+    public String nombre(int simbolo) {
+        return nombres[simbolo];
+    }
+
+    /** Id del símbolo o -1 si no aparece en la gramática. */
+    public int id(String simbolo) {
+        Integer id = ids.get(simbolo);
+        return (id == null) ? -1 : id;
+    }
+
+    public boolean esTerminal(int simbolo) {
+        return terminales.get(simbolo);
+    }
+
+    public boolean esNoTerminal(int simbolo) {
+        return noTerminales.get(simbolo);
+    }
+
+    /** Copia del conjunto de terminales (ids). */
+    public BitSet terminales() {
+        return (BitSet) terminales.clone();
+    }
+
+    /** Copia del conjunto de no terminales (ids). */
+    public BitSet noTerminales() {
+        return (BitSet) noTerminales.clone();
+    }
+
+    /** Id de ε o -1 si la gramática no lo usa. */
+    public int epsilon() {
+        return epsilon;
+    }
+
+    // ==================== PRODUCCIONES ====================
+
+    public int numProducciones() {
+        return producciones.length;
+    }
+
+    public production produccion(int p) {
+        return producciones[p];
+    }
+
+    /** Id de la producción (la primera igual a ella). */
+    public int id(production p) {
+        return idProduccion.get(p);
+    }
+
+    public int izquierda(int p) {
+        return izquierda[p];
+    }
+
+    public int[] derecha(int p) {
+        return derecha[p];
+    }
+
+    /** Primera producción del no terminal A; sus producciones son [primera, fin). */
+    public int primeraProduccion(int A) {
+        return primeraProduccion[A];
+    }
+
+    public int finProducciones(int A) {
+        return finProducciones[A];
+    }
+
+    /** La producción S' → S $. */
+    public int produccionInicial() {
+        return produccionInicial;
+    }
+
+    // ==================== ÍTEMS ====================
+
+    public int numItems() {
+        return itemProduccion.length;
+    }
+
+    public int item(int produccion, int punto) {
+        return inicioItems[produccion] + punto;
+    }
+
+    public int produccionDe(int item) {
+        return itemProduccion[item];
+    }
+
+    public int puntoDe(int item) {
+        return itemPunto[item];
+    }
+
+    /** Símbolo después del punto, o -1 si el punto está al final. */
+    public int trasPunto(int item) {
+        return trasPunto[item];
+    }
+
+    /** Ítems A → •α de las producciones de A, en orden; vacío si A no es no terminal. */
+    public int[] predichos(int A) {
+        return predichos[A];
+    }
+
+    /** El ítem con el punto un símbolo más adelante (solo si trasPunto(item) >= 0). */
+    public int avanzar(int item) {
+        return item + 1;
+    }
+
+    public itemLR0 comoItemLR0(int item) {
+        return new itemLR0(producciones[itemProduccion[item]], itemPunto[item]);
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledGrammar [simbolos=" + nombres.length + ", producciones=" + producciones.length
+                + ", items=" + itemProduccion.length + "]";
+    }
+}
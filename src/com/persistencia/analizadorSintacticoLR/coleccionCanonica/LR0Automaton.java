@@ -0,0 +1,284 @@
+package com.persistencia.analizadorSintacticoLR.coleccionCanonica;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Autómata LR(0) de una gramática compilada: los estados de la colección canónica con
+ * sus transiciones Ir_a ya resueltas, para que la tabla, el reporte y los paneles no
+ * vuelvan a calcular cerraduras ni a buscar estados.
+ *
+ * Se construye con una cola de trabajo; cada estado se identifica por su núcleo (los
+ * ítems avanzados, ordenados), que determina la cerradura, así que un estado repetido se
+ * detecta con una búsqueda en un HashMap. La numeración es la de la versión por rondas:
+ * I0 es la cerradura del ítem inicial y los demás se numeran en el orden en que aparecen.
+ *
+ * Con {@link #construirParalelo} cada nivel de la búsqueda se reparte en un
+ * {@link ForkJoinPool} y los estados se deduplican en un mapa concurrente; al final se
+ * renumeran para que el resultado sea idéntico al de {@link #construir}.
+ *
+ * No hay transición con "$" (la aceptación la resuelve la tabla) ni con ε. Los arreglos
+ * que se devuelven son los internos: no deben modificarse.
+ */
+public final class LR0Automaton {
+
+    private static final int TAREAS_POR_HILO = 4;
+
+    private final CompiledGrammar g;
+    private final List<int[]> estados = new ArrayList<>();     // ítems en orden de cerradura
+    private final List<int[]> simbolos = new ArrayList<>();    // por estado: símbolos con transición, en orden de aparición
+    private final List<int[]> destinos = new ArrayList<>();    // por estado: destino de cada símbolo de simbolos
+
+    private LR0Automaton(CompiledGrammar g) {
+        this.g = g;
+    }
+
+    public static LR0Automaton construir(grammar gramatica) {
+        return construir(CompiledGrammar.compilar(gramatica));
+    }
+
+    public static LR0Automaton construir(CompiledGrammar g) {
+        LR0Automaton a = new LR0Automaton(g);
+        int fin = g.id("$");
+        Map<nucleo, Integer> porNucleo = new HashMap<>();
+
+        int[] inicial = { g.item(g.produccionInicial(), 0) };
+        porNucleo.put(new nucleo(inicial), 0);
+        a.estados.add(canonicalLR.closure(g, inicial));
+
+        ArrayDeque<Integer> trabajo = new ArrayDeque<>();
+        trabajo.add(0);
+        while (!trabajo.isEmpty()) {
+            int i = trabajo.poll();
+            int[] I = a.estados.get(i);
+            int[] sim = simbolosConTransicion(g, I, fin);
+            int[] dst = new int[sim.length];
+            for (int k = 0; k < sim.length; k++) {
+                int[] kernel = canonicalLR.go(g, I, sim[k]);
+                nucleo clave = new nucleo(canonicalLR.sortedItems(kernel));
+                Integer j = porNucleo.get(clave);
+                if (j == null) {
+                    j = a.estados.size();
+                    porNucleo.put(clave, j);
+                    a.estados.add(canonicalLR.closure(g, kernel));
+                    trabajo.add(j);
+                }
+                dst[k] = j;
+            }
+            a.simbolos.add(sim);
+            a.destinos.add(dst);
+        }
+        return a;
+    }
+
+    public static LR0Automaton construirParalelo(grammar gramatica, ForkJoinPool pool) {
+        return construirParalelo(CompiledGrammar.compilar(gramatica), pool);
+    }
+
+    /**
+     * Construcción por niveles en el pool: los estados de la frontera se expanden en
+     * paralelo y el primero que inserta un núcleo calcula su cerradura. Después, un
+     * recorrido en anchura sobre las transiciones asigna los números que daría la cola
+     * secuencial; si un estado quedó calculado desde otro predecesor (sus ítems en otro
+     * orden), se recalcula desde el que le corresponde.
+     */
+    public static LR0Automaton construirParalelo(CompiledGrammar g, ForkJoinPool pool) {
+        int fin = g.id("$");
+        Map<nucleo, estadoParalelo> porNucleo = new ConcurrentHashMap<>();
+
+        int[] inicial = { g.item(g.produccionInicial(), 0) };
+        estadoParalelo e0 = new estadoParalelo(inicial);
+        e0.items = canonicalLR.closure(g, inicial);
+        porNucleo.put(new nucleo(inicial), e0);
+
+        // 1) Niveles: cada tarea expande un tramo de la frontera y devuelve los estados que descubrió
+        List<estadoParalelo> frontera = List.of(e0);
+        while (!frontera.isEmpty()) {
+            int tramo = Math.max(1, frontera.size() / (pool.getParallelism() * TAREAS_POR_HILO));
+            List<Callable<List<estadoParalelo>>> tareas = new ArrayList<>();
+            for (int desde = 0; desde < frontera.size(); desde += tramo) {
+                List<estadoParalelo> parte = frontera.subList(desde, Math.min(desde + tramo, frontera.size()));
+                tareas.add(() -> {
+                    List<estadoParalelo> nuevos = new ArrayList<>();
+                    for (estadoParalelo e : parte) expandir(g, e, fin, porNucleo, nuevos);
+                    return nuevos;
+                });
+            }
+            List<estadoParalelo> siguiente = new ArrayList<>();
+            for (Future<List<estadoParalelo>> f : pool.invokeAll(tareas)) siguiente.addAll(obtener(f));
+            frontera = siguiente;
+        }
+
+        // 2) Numeración canónica: la misma anchura que la cola de construir()
+        LR0Automaton a = new LR0Automaton(g);
+        List<estadoParalelo> orden = new ArrayList<>();
+        e0.numero = 0;
+        orden.add(e0);
+        for (int i = 0; i < orden.size(); i++) {
+            estadoParalelo e = orden.get(i);
+            int[] sim = simbolosConTransicion(g, e.items, fin);
+            int[] dst = new int[sim.length];
+            for (int k = 0; k < sim.length; k++) {
+                estadoParalelo d = e.destino(sim[k]);
+                if (d.numero < 0) {
+                    d.numero = orden.size();
+                    orden.add(d);
+                    int[] kernel = canonicalLR.go(g, e.items, sim[k]);
+                    if (!Arrays.equals(kernel, d.kernel)) d.items = canonicalLR.closure(g, kernel);
+                }
+                dst[k] = d.numero;
+            }
+            a.estados.add(e.items);
+            a.simbolos.add(sim);
+            a.destinos.add(dst);
+        }
+        return a;
+    }
+
+    /** Transiciones de e; los núcleos nuevos se insertan en porNucleo y se agregan a nuevos. */
+    private static void expandir(CompiledGrammar g, estadoParalelo e, int fin,
+                                 Map<nucleo, estadoParalelo> porNucleo, List<estadoParalelo> nuevos) {
+        int[] sim = simbolosConTransicion(g, e.items, fin);
+        estadoParalelo[] dst = new estadoParalelo[sim.length];
+        for (int k = 0; k < sim.length; k++) {
+            int[] kernel = canonicalLR.go(g, e.items, sim[k]);
+            nucleo clave = new nucleo(canonicalLR.sortedItems(kernel));
+            estadoParalelo d = porNucleo.get(clave);
+            if (d == null) {
+                estadoParalelo candidato = new estadoParalelo(kernel);
+                d = porNucleo.putIfAbsent(clave, candidato);
+                if (d == null) {
+                    d = candidato;
+                    d.items = canonicalLR.closure(g, kernel);
+                    nuevos.add(d);
+                }
+            }
+            dst[k] = d;
+        }
+        e.simbolos = sim;
+        e.destinos = dst;
+    }
+
+    /** Símbolos tras el punto, sin "$" ni ε, en orden de aparición. */
+    private static int[] simbolosConTransicion(CompiledGrammar g, int[] I, int fin) {
+        int[] s = canonicalLR.symbolsAfterDot(g, I);
+        int n = 0;
+        for (int X : s) {
+            if (X != fin && X != g.epsilon()) s[n++] = X;
+        }
+        return Arrays.copyOf(s, n);
+    }
+
+    private static <T> T obtener(Future<T> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Construcción interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public CompiledGrammar gramatica() {
+        return g;
+    }
+
+    public int numEstados() {
+        return estados.size();
+    }
+
+    /** Ítems del estado i, en orden de cerradura. */
+    public int[] items(int i) {
+        return estados.get(i);
+    }
+
+    /** Símbolos con transición desde el estado i, en el orden en que aparecen tras el punto. */
+    public int[] simbolos(int i) {
+        return simbolos.get(i);
+    }
+
+    /** Destinos de las transiciones del estado i, en el mismo orden que {@link #simbolos}. */
+    public int[] destinos(int i) {
+        return destinos.get(i);
+    }
+
+    /** Ir_a(i, X) o -1 si no hay transición. */
+    public int destino(int i, int X) {
+        int[] sim = simbolos.get(i);
+        for (int k = 0; k < sim.length; k++) {
+            if (sim[k] == X) return destinos.get(i)[k];
+        }
+        return -1;
+    }
+
+    /** Los estados como conjuntos de itemLR0, para el código que aún trabaja con ellos. */
+    public List<Set<itemLR0>> comoConjuntos() {
+        List<Set<itemLR0>> C = new ArrayList<>(estados.size());
+        for (int[] I : estados) {
+            Set<itemLR0> S = new LinkedHashSet<>();
+            for (int it : I) S.add(g.comoItemLR0(it));
+            C.add(S);
+        }
+        return C;
+    }
+
+    @Override
+    public String toString() {
+        int transiciones = 0;
+        for (int[] d : destinos) transiciones += d.length;
+        return "LR0Automaton [estados=" + estados.size() + ", transiciones=" + transiciones + "]";
+    }
+
+    /**
+     * Estado durante la construcción paralela. Los ítems los escribe el hilo que insertó
+     * el núcleo y las transiciones el que lo expande; entre niveles los publica invokeAll.
+     */
+    private static final class estadoParalelo {
+        final int[] kernel;                  // en el orden del predecesor que lo insertó
+        int[] items;
+        int[] simbolos;
+        estadoParalelo[] destinos;
+        int numero = -1;
+
+        estadoParalelo(int[] kernel) {
+            this.kernel = kernel;
+        }
+
+        estadoParalelo destino(int X) {
+            for (int k = 0; k < simbolos.length; k++) {
+                if (simbolos[k] == X) return destinos[k];
+            }
+            throw new IllegalStateException("Sin transición con el símbolo " + X);
+        }
+    }
+
+    /** Núcleo ordenado con su hash calculado una vez, como clave de estado. */
+    private static final class nucleo {
+        final int[] items;
+        final int hash;
+
+        nucleo(int[] items) {
+            this.items = items;
+            this.hash = Arrays.hashCode(items);
+        }
+
+        @Override public boolean equals(Object o) {
+            return o instanceof nucleo && Arrays.equals(items, ((nucleo) o).items);
+        }
+
+        @Override public int hashCode() { return hash; }
+    }
+}
@@ -1,5 +1,9 @@
 package com.persistencia.analizadorSintacticoLR.coleccionCanonica;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.*;
 
 public class canonicalLR {
@@ -56,47 +60,85 @@ public class canonicalLR {
 
     // ---------- colección canónica----------
     public static List<Set<itemLR0>> canonicalCollection(grammar g) {
-        production startProd = g.byLeft.get(g.startPrime).get(0);
-        Set<itemLR0> I0 = closure(g, new LinkedHashSet<>(Collections.singleton(new itemLR0(startProd, 0))));
+        return LR0Automaton.construir(g).comoConjuntos();
+    }
 
-        List<Set<itemLR0>> C = new ArrayList<>();
-        C.add(I0);
+    // ---------- sobre la gramática compilada ----------
+    // Un conjunto de ítems es un int[] en orden de cerradura (el mismo que el LinkedHashSet
+    // de las versiones de arriba); dos conjuntos son iguales si tienen los mismos ítems.
+    // La colección canónica con sus transiciones está en LR0Automaton.
 
-        boolean changed = true;
-        while (changed) {
-            changed = false;
-            List<Set<itemLR0>> snapshot = new ArrayList<>(C);
-            for (Set<itemLR0> I : snapshot) {
-                Set<String> symbols = new LinkedHashSet<>();
-                for (itemLR0 it : I) {
-                    String s = it.symbolAfterDot();
-                    if (s != null) {
-                        symbols.add(s);
-                    }
-                }
-                for (String X : symbols) {
-                    if ("$".equals(X)) {
-                        continue;
-                    }
-                    Set<itemLR0> J = goTo(g, I, X);
-                    if (J.isEmpty()) {
-                        continue;
-                    }
-                    boolean exists = false;
-                    for (Set<itemLR0> K : C) {
-                        if (K.equals(J)) {
-                            exists = true;
-                            break;
-                        }
-                    }
-                    if (!exists) {
-                        C.add(J);
-                        changed = true;
-                    }
-                }
+    /**
+     * cerradura(I) en una sola pasada: los ítems se recorren como una cola y cada no
+     * terminal se expande una vez, agregando sus ítems predichos. El resultado tiene el
+     * mismo orden que las rondas de {@link #closure(grammar, Set)}, porque lo agregado en
+     * una ronda solo se expandía en la siguiente.
+     */
+    public static int[] closure(CompiledGrammar g, int[] I) {
+        int[] C = Arrays.copyOf(I, Math.max(8, I.length * 2));
+        int n = I.length;
+        BitSet expandidos = new BitSet(g.numSimbolos());
+
+        // Un ítem con el punto al inicio en el núcleo (solo pasa en I0) ya no se vuelve a agregar
+        BitSet enNucleo = null;
+        for (int it : I) {
+            if (g.puntoDe(it) == 0) {
+                if (enNucleo == null) enNucleo = new BitSet(g.numItems());
+                enNucleo.set(it);
             }
         }
-        return C;
+
+        for (int k = 0; k < n; k++) {
+            int X = g.trasPunto(C[k]);
+            if (X < 0 || !g.esNoTerminal(X) || expandidos.get(X)) continue;
+            expandidos.set(X);
+            int[] predichos = g.predichos(X);
+            if (n + predichos.length > C.length) C = Arrays.copyOf(C, Math.max(C.length * 2, n + predichos.length));
+            for (int cand : predichos) {
+                if (enNucleo != null && enNucleo.get(cand)) continue;
+                C[n++] = cand;
+            }
+        }
+        return Arrays.copyOf(C, n);
+    }
+
+    /** Núcleo de Ir_a(I, X): los ítems de I con X tras el punto, avanzados. */
+    public static int[] go(CompiledGrammar g, int[] I, int X) {
+        if (X == g.epsilon()) {
+            return new int[0];
+        }
+        int[] J = new int[I.length];
+        int n = 0;
+        for (int it : I) {
+            if (g.trasPunto(it) == X) J[n++] = g.avanzar(it);
+        }
+        return Arrays.copyOf(J, n);
+    }
+
+    public static int[] goTo(CompiledGrammar g, int[] I, int X) {
+        return closure(g, go(g, I, X));
+    }
+
+    /** Símbolos tras el punto en I, sin repetir y en orden de aparición. */
+    public static int[] symbolsAfterDot(CompiledGrammar g, int[] I) {
+        int[] out = new int[I.length];
+        int n = 0;
+        BitSet vistos = new BitSet(g.numSimbolos());
+        for (int it : I) {
+            int X = g.trasPunto(it);
+            if (X >= 0 && !vistos.get(X)) {
+                vistos.set(X);
+                out[n++] = X;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** Copia ordenada de I, para compararlo como conjunto. */
+    public static int[] sortedItems(int[] I) {
+        int[] s = I.clone();
+        Arrays.sort(s);
+        return s;
     }
 
     private static List<String> orderedSymbols(grammar g, Set<itemLR0> I) {
@@ -186,4 +228,91 @@ public class canonicalLR {
         }
         return out.toString();
     }
+
+    /** Mismo reporte que {@link #formatReport(grammar, List)}, leyendo las transiciones del autómata. */
+    public static String formatReport(LR0Automaton a) {
+        StringWriter out = new StringWriter();
+        try {
+            writeReport(a, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);     // StringWriter no falla
+        }
+        return out.toString();
+    }
+
+    /**
+     * Escribe el reporte estado por estado en out, sin armarlo completo en memoria: para
+     * gramáticas grandes conviene pasar un Writer con buffer sobre un archivo.
+     */
+    public static void writeReport(LR0Automaton a, Writer out) throws IOException {
+        writeHeader(a, out);
+        for (int i = 0; i < a.numEstados(); i++) {
+            writeState(a, i, out);
+        }
+        out.flush();
+    }
+
+    /** Encabezado del reporte: la cerradura del ítem inicial (I0). */
+    public static void writeHeader(LR0Automaton a, Writer out) throws IOException {
+        CompiledGrammar g = a.gramatica();
+        int startItem = g.item(g.produccionInicial(), 0);
+        out.write("cerradura({");
+        out.write(g.comoItemLR0(startItem).toString());
+        out.write("})\nI0=");
+        writeItems(g, a.items(0), out);
+        out.write("\n\n");
+    }
+
+    /** Las líneas Ir_a del estado i (N luego T), seguidas de una línea en blanco. */
+    public static void writeState(LR0Automaton a, int i, Writer out) throws IOException {
+        CompiledGrammar g = a.gramatica();
+        int[] I = a.items(i);
+        for (int X : orderedSymbols(g, I)) {
+            String nombre = g.nombre(X);
+            if (!grammar.EPS.equals(nombre)) {
+                out.write("Ir_a(I" + i + ", " + nombre + ")=");
+                if ("$".equals(nombre)) {
+                    out.write("Aceptación");
+                } else {
+                    int j = a.destino(i, X);
+                    out.write("cerradura(");
+                    writeItems(g, go(g, I, X), out);
+                    out.write(")= (");
+                    writeItems(g, a.items(j), out);
+                    out.write(") =I" + j);
+                }
+            }
+            out.write("\n");
+        }
+        out.write("\n");
+    }
+
+    private static void writeItems(CompiledGrammar g, int[] S, Writer out) throws IOException {
+        out.write("{");
+        for (int k = 0; k < S.length; k++) {
+            if (k > 0) out.write("|");
+            out.write(g.comoItemLR0(S[k]).toString());
+        }
+        out.write("}");
+    }
+
+    /** Como {@link #orderedSymbols(grammar, Set)}: no terminales, terminales y el resto en orden de aparición. */
+    private static List<Integer> orderedSymbols(CompiledGrammar g, int[] I) {
+        int[] s = symbolsAfterDot(g, I);
+        BitSet en = new BitSet(g.numSimbolos());
+        for (int x : s) en.set(x);
+        List<Integer> out = new ArrayList<>();
+        for (String A : g.fuente.N) {
+            int x = g.id(A);
+            if (x >= 0 && en.get(x)) out.add(x);
+        }
+        for (String a : g.fuente.T) {
+            int x = g.id(a);
+            if (x >= 0 && en.get(x)) out.add(x);
+        }
+        for (int x : s) {
+            if (!out.contains(x)) out.add(x);
+        }
+        return out;
+    }
 }
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.stream.Collectors;
 
 public class grammar {
     public static final String EPS = "ε";
@@ -25,8 +26,17 @@ public class grammar {
     }
 
     public static grammar parseAugmentedGrammar(String path) throws IOException {
+        return parseAugmentedGrammar(Files.readAllLines(Paths.get(path)));
+    }
+
+    /** Igual que {@link #parseAugmentedGrammar(String)}, a partir del contenido ya leído. */
+    public static grammar parseAugmentedGrammarText(String text) {
+        return parseAugmentedGrammar(text.lines().collect(Collectors.toList()));
+    }
+
+    private static grammar parseAugmentedGrammar(List<String> rawLines) {
         List<String> lines = new ArrayList<>();
-        for (String raw : Files.readAllLines(Paths.get(path))) {
+        for (String raw : rawLines) {
             String ln = raw.trim();
             if (!ln.isEmpty() && !ln.startsWith("#")) lines.add(ln);
         }
@@ -39,7 +49,7 @@ public class grammar {
 
         List<String> vocab = new ArrayList<>();
         vocab.addAll(N); vocab.addAll(T);
-        vocab.sort((a,b) -> Integer.compare(b.length(), a.length()));
+        trieVocabulario trie = new trieVocabulario(vocab);
 
         Map<String, List<production>> byLeft = new LinkedHashMap<>();
         for (String A : N) byLeft.put(A, new ArrayList<>());
@@ -56,7 +66,7 @@ public class grammar {
             if (!byLeft.containsKey(left)) { byLeft.put(left, new ArrayList<>()); if (!N.contains(left)) N.add(0, left); }
 
             for (String alt : right.split("\\|")) {
-                List<String> rhs = tokenize(alt.trim(), vocab);
+                List<String> rhs = tokenize(alt.trim(), trie);
                 production p = new production(left, rhs);
                 byLeft.get(left).add(p);
                 all.add(p);
@@ -72,7 +82,7 @@ public class grammar {
 
     private static String norm(String s) { return EPS_FORMS.contains(s) ? EPS : s; }
 
-    private static List<String> tokenize(String rhs, List<String> vocab) {
+    private static List<String> tokenize(String rhs, trieVocabulario vocab) {
         if (rhs.isEmpty()) return Collections.singletonList(EPS);
         if (rhs.contains(" ")) {
             String[] parts = rhs.split("\\s+");
@@ -83,15 +93,45 @@ public class grammar {
         List<String> out = new ArrayList<>();
         int i = 0;
         while (i < rhs.length()) {
-            boolean matched = false;
+            String sym = vocab.masLargo(rhs, i);
+            if (sym != null) { out.add(sym); i += sym.length(); }
+            else { out.add(String.valueOf(rhs.charAt(i))); i++; }
+        }
+        if (out.isEmpty()) out.add(EPS);
+        return out;
+    }
+
+    /**
+     * Trie con los símbolos de N y T para separar lados derechos escritos sin espacios:
+     * desde cada posición se toma el símbolo más largo, recorriendo el texto una sola vez
+     * en lugar de probar todo el vocabulario.
+     */
+    private static final class trieVocabulario {
+        private final Map<Character, trieVocabulario> hijos = new HashMap<>();
+        private String simbolo;   // símbolo que termina en este nodo
+
+        trieVocabulario(List<String> vocab) {
             for (String sym : vocab) {
-                if (i + sym.length() <= rhs.length() && rhs.startsWith(sym, i)) {
-                    out.add(sym); i += sym.length(); matched = true; break;
+                trieVocabulario nodo = this;
+                for (int k = 0; k < sym.length(); k++) {
+                    nodo = nodo.hijos.computeIfAbsent(sym.charAt(k), c -> new trieVocabulario());
                 }
+                if (!sym.isEmpty()) nodo.simbolo = sym;
             }
-            if (!matched) { out.add(String.valueOf(rhs.charAt(i))); i++; }
         }
-        if (out.isEmpty()) out.add(EPS);
-        return out;
+
+        private trieVocabulario() {}
+
+        /** Símbolo más largo que empieza en texto[desde], o null. */
+        String masLargo(String texto, int desde) {
+            String mejor = null;
+            trieVocabulario nodo = this;
+            for (int j = desde; j < texto.length(); j++) {
+                nodo = nodo.hijos.get(texto.charAt(j));
+                if (nodo == null) break;
+                if (nodo.simbolo != null) mejor = nodo.simbolo;
+            }
+            return mejor;
+        }
     }
 }
@@ -2,7 +2,6 @@ package com.persistencia.analizadorSintacticoLR.coleccionCanonica;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 public class itemLR0 {
     public final production p;
@@ -22,7 +21,8 @@ public class itemLR0 {
         return dot == x.dot && p.equals(x.p);
     }
 
-    @Override public int hashCode() { return Objects.hash(p, dot); }
+    // Igual que Objects.hash(p, dot), sin el arreglo de varargs
+    @Override public int hashCode() { return 31 * (31 + p.hashCode()) + dot; }
 
     @Override public String toString() {
         List<String> out = new ArrayList<>(p.right);
@@ -6,19 +6,21 @@ import java.util.Objects;
 public class production {
     public final String left;
     public final List<String> right;
+    private final int hash;            // right no se modifica después de construir
 
     public production(String left, List<String> right) {
         this.left = left;
         this.right = right;
+        this.hash = Objects.hash(left, right);
     }
 
     @Override public boolean equals(Object o) {
         if (!(o instanceof production)) return false;
         production p = (production) o;
-        return Objects.equals(left, p.left) && Objects.equals(right, p.right);
+        return hash == p.hash && Objects.equals(left, p.left) && Objects.equals(right, p.right);
     }
 
-    @Override public int hashCode() { return Objects.hash(left, right); }
+    @Override public int hashCode() { return hash; }
 
     @Override public String toString() {
         return left + "->" + String.join(" ", right);
@@ -7,115 +7,81 @@ public final class FirstFollow {
     private FirstFollow() {}
 
     public static Map<String, Set<String>> computeFirst(grammar g) {
+        numerada n = new numerada(g);
         Map<String, Set<String>> first = new LinkedHashMap<>();
         for (String nt : g.nonTerminals) {
-            first.put(nt, new LinkedHashSet<>());
+            int A = n.ids.get(nt);
+            Set<String> s = new LinkedHashSet<>();
+            n.ff.forEachFirst(A, t -> s.add((t == FirstFollowOrden.EPS) ? grammar.EPS : n.simbolos.get(t)));
+            first.put(nt, s);
         }
-        boolean changed;
-        do {
-            changed = false;
-            for (Map.Entry<String, List<List<String>>> e : g.prods.entrySet()) {
-                String A = e.getKey();
-                for (List<String> alpha : e.getValue()) {
-                    if (alpha.size() == 1 && grammar.isEpsilon(alpha.get(0))) {
-                        if (first.get(A).add(grammar.EPS)) changed = true;
-                        continue;
-                    }
-                    boolean allNullable = true;
-                    for (String X : alpha) {
-                        Set<String> toAdd = new LinkedHashSet<>();
-                        if (g.terminals.contains(X)) {
-                            toAdd.add(X);
-                        } else if (grammar.isEpsilon(X)) {
-                            toAdd.add(grammar.EPS);
-                        } else {
-                            toAdd.addAll(first.getOrDefault(X, Collections.emptySet()));
-                        }
-                        boolean localChanged = false;
-                        for (String s : toAdd) {
-                            if (!s.equals(grammar.EPS)) {
-                                if (first.get(A).add(s)) localChanged = true;
-                            }
-                        }
-                        if (localChanged) changed = true;
-                        if (!toAdd.contains(grammar.EPS)) {
-                            allNullable = false;
-                            break;
-                        }
-                    }
-                    if (allNullable) {
-                        if (first.get(A).add(grammar.EPS)) changed = true;
-                    }
-                }
-            }
-        } while (changed);
         return first;
     }
 
+    /** first se acepta por compatibilidad: PRIMEROS se recalcula junto con SIGUIENTES. */
     public static Map<String, Set<String>> computeFollow(grammar g, Map<String, Set<String>> first) {
+        if (g.start == null) throw new IllegalStateException("No se identificó símbolo inicial");
+        numerada n = new numerada(g);
         Map<String, Set<String>> follow = new LinkedHashMap<>();
         for (String nt : g.nonTerminals) {
-            follow.put(nt, new LinkedHashSet<>());
+            Set<String> s = new LinkedHashSet<>();
+            n.ff.forEachFollow(n.ids.get(nt), t -> s.add(n.simbolos.get(t)));
+            follow.put(nt, s);
         }
-        if (g.start == null) throw new IllegalStateException("No se identificó símbolo inicial");
-        follow.get(g.start).add("$");
+        return follow;
+    }
 
-        boolean changed;
-        do {
-            changed = false;
+    /**
+     * La gramática con ids y sus conjuntos, en orden de descubrimiento (el que muestra el
+     * panel). Dentro de un lado derecho, lo declarado como terminal cuenta como terminal,
+     * ε como vacío, un no terminal aporta sus PRIMEROS y cualquier otro símbolo no aporta nada.
+     */
+    private static final class numerada {
+        final List<String> simbolos = new ArrayList<>();
+        final Map<String, Integer> ids = new HashMap<>();
+        final FirstFollowOrden ff;
+
+        numerada(grammar g) {
+            for (String a : g.nonTerminals) id(a);
+            for (String a : g.terminals) id(a);
+            List<Integer> izquierdas = new ArrayList<>();
+            List<int[]> derechas = new ArrayList<>();
             for (Map.Entry<String, List<List<String>>> e : g.prods.entrySet()) {
-                String A = e.getKey();
+                int A = id(e.getKey());
                 for (List<String> alpha : e.getValue()) {
-                    for (int i = 0; i < alpha.size(); i++) {
-                        String B = alpha.get(i);
-                        if (!g.nonTerminals.contains(B)) continue;
-
-                        List<String> beta = (i + 1 < alpha.size()) ? alpha.subList(i + 1, alpha.size())
-                                                                    : Collections.emptyList();
-                        if (!beta.isEmpty()) {
-                            Set<String> firstBeta = firstOfSequence(beta, g, first);
-                            boolean localChanged = false;
-                            for (String s : firstBeta) {
-                                if (!s.equals(grammar.EPS)) {
-                                    if (follow.get(B).add(s)) localChanged = true;
-                                }
-                            }
-                            if (localChanged) changed = true;
-                            if (firstBeta.contains(grammar.EPS)) {
-                                if (follow.get(B).addAll(follow.get(A))) changed = true;
-                            }
-                        } else {
-                            if (follow.get(B).addAll(follow.get(A))) changed = true;
-                        }
-                    }
+                    int[] rhs = new int[alpha.size()];
+                    for (int k = 0; k < rhs.length; k++) rhs[k] = id(alpha.get(k));
+                    izquierdas.add(A);
+                    derechas.add(rhs);
                 }
             }
-        } while (changed);
-        return follow;
-    }
+            int fin = id("$");
 
-    private static Set<String> firstOfSequence(List<String> seq, grammar g, Map<String, Set<String>> first) {
-        Set<String> result = new LinkedHashSet<>();
-        boolean allNullable = true;
-        for (String X : seq) {
-            Set<String> fx = new LinkedHashSet<>();
-            if (g.terminals.contains(X)) {
-                fx.add(X);
-            } else if (grammar.isEpsilon(X)) {
-                fx.add(grammar.EPS);
-            } else {
-                fx.addAll(first.getOrDefault(X, Collections.emptySet()));
+            int n = simbolos.size();
+            int[] tipo = new int[n];
+            boolean[] conConjuntos = new boolean[n];
+            for (int x = 0; x < n; x++) {
+                String s = simbolos.get(x);
+                conConjuntos[x] = g.nonTerminals.contains(s);
+                if (g.terminals.contains(s)) tipo[x] = FirstFollowOrden.TERMINAL;
+                else if (grammar.isEpsilon(s)) tipo[x] = FirstFollowOrden.EPSILON;
+                else if (conConjuntos[x]) tipo[x] = FirstFollowOrden.NO_TERMINAL;
+                else tipo[x] = FirstFollowOrden.OTRO;
             }
-            for (String s : fx) {
-                if (!s.equals(grammar.EPS)) result.add(s);
-            }
-            if (!fx.contains(grammar.EPS)) {
-                allNullable = false;
-                break;
+            int inicial = (g.start != null) ? ids.get(g.start) : -1;
+            ff = FirstFollowOrden.calcular(tipo, conConjuntos,
+                    izquierdas.stream().mapToInt(Integer::intValue).toArray(),
+                    derechas.toArray(new int[0][]), inicial, fin);
+        }
+
+        private int id(String s) {
+            Integer id = ids.get(s);
+            if (id == null) {
+                id = simbolos.size();
+                ids.put(s, id);
+                simbolos.add(s);
             }
+            return id;
         }
-        if (allNullable) result.add(grammar.EPS);
-        return result;
     }
 }
-
@@ -0,0 +1,356 @@
+package com.persistencia.analizadorSintacticoLR.primerosYSiguientes;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * PRIMEROS y SIGUIENTES sobre una gramática ya numerada, en el orden en que los descubre
+ * el cálculo por pasadas: se recorren las producciones en orden, una y otra vez, hasta que
+ * una pasada no agrega nada, y cada conjunto guarda sus elementos en orden de inserción.
+ * Ese orden es el que se muestra (panel de PRIMEROS/SIGUIENTES, filas de la tabla ACCION y
+ * los "se esperaba"), así que se conserva.
+ *
+ * Para no pagar pasadas completas, una producción solo se vuelve a evaluar si cambió
+ * alguno de los conjuntos que lee desde que empezó su última evaluación; si no, no
+ * agregaría nada y saltarla no altera el orden. La pertenencia es un arreglo por conjunto,
+ * sin copias por pasada.
+ *
+ * Cuando PRIMEROS converge se arma, una sola vez, la tabla de sufijos: PRIMEROS(β) y si β
+ * es anulable para cada producción y posición del punto. SIGUIENTES la usa en lugar de
+ * recorrer cada cola, y queda expuesta para construcciones con preanálisis.
+ *
+ * Quien la usa decide cómo se comporta cada símbolo dentro de un lado derecho (ver
+ * TERMINAL, NO_TERMINAL, EPSILON y OTRO) y qué símbolos tienen conjuntos propios; así la
+ * comparten {@link FirstFollow} y la tabla LR, que tratan distinto los símbolos no declarados.
+ */
+public final class FirstFollowOrden {
+
+    /** Aporta el propio símbolo y corta. */
+    public static final int TERMINAL = 0;
+    /** Aporta sus PRIMEROS y corta si no es anulable. */
+    public static final int NO_TERMINAL = 1;
+    /** Anulable y sin aporte (ε). */
+    public static final int EPSILON = 2;
+    /** No aporta nada y corta (símbolo desconocido). */
+    public static final int OTRO = 3;
+    /**
+     * Como EPSILON, pero la secuencia cuenta como anulable aunque después corte un
+     * terminal: "ε a" aporta a y ε. Así lo trata la tabla LR.
+     */
+    public static final int EPSILON_ANULA = 4;
+
+    /** ε dentro de las listas de PRIMEROS. */
+    public static final int EPS = -1;
+
+    private final int[] tipo;
+    private final boolean[] conConjuntos;
+    private final int[] izquierda;
+    private final int[][] derecha;
+
+    private final conjunto[] first;
+    private final conjunto[] follow;
+
+    // PRIMEROS (sin ε, en el orden de recorrido) y anulable de cada sufijo derecha[p][k..],
+    // posición = inicioPosiciones[p] + k
+    private int[] inicioPosiciones;
+    private int[][] firstSufijo;
+    private long[][] bitsSufijo;             // un bit por id de símbolo
+    private boolean[] sufijoAnulable;
+
+    private FirstFollowOrden(int[] tipo, boolean[] conConjuntos, int[] izquierda, int[][] derecha) {
+        this.tipo = tipo;
+        this.conConjuntos = conConjuntos;
+        this.izquierda = izquierda;
+        this.derecha = derecha;
+        int n = tipo.length;
+        first = new conjunto[n];
+        follow = new conjunto[n];
+        for (int x = 0; x < n; x++) {
+            if (conConjuntos[x]) {
+                first[x] = new conjunto(n);
+                follow[x] = new conjunto(n);
+            }
+        }
+    }
+
+    /**
+     * @param tipo         comportamiento de cada símbolo dentro de un lado derecho
+     * @param conConjuntos símbolos que tienen PRIMEROS y SIGUIENTES (los no terminales)
+     * @param izquierda    lado izquierdo de cada producción, en el orden de las pasadas
+     * @param derecha      lado derecho de cada producción
+     * @param inicial      si es >= 0, fin se agrega a SIGUIENTES(inicial) antes de la
+     *                     primera pasada (el "$" de una gramática sin aumentar)
+     */
+    public static FirstFollowOrden calcular(int[] tipo, boolean[] conConjuntos,
+                                            int[] izquierda, int[][] derecha,
+                                            int inicial, int fin) {
+        FirstFollowOrden ff = new FirstFollowOrden(tipo, conConjuntos, izquierda, derecha);
+        ff.calcularFirst();
+        ff.calcularSufijos();
+        ff.calcularFollow(inicial, fin);
+        return ff;
+    }
+
+    // ==================== CÁLCULO ====================
+
+    private boolean tieneConjuntos(int x) {
+        return tipo[x] == NO_TERMINAL && conConjuntos[x];
+    }
+
+    private void calcularFirst() {
+        // Producciones que leen PRIMEROS(x): las que tienen a x en el lado derecho
+        int[][] lectores = lectores(true);
+        int[][] leidos = new int[derecha.length][];
+        for (int p = 0; p < derecha.length; p++) leidos[p] = new int[derecha[p].length];
+        boolean[] pendiente = new boolean[derecha.length];
+        Arrays.fill(pendiente, true);
+        boolean cambio;
+        do {
+            cambio = false;
+            for (int p = 0; p < derecha.length; p++) {
+                if (!pendiente[p]) continue;
+                pendiente[p] = false;
+                conjunto fA = first[izquierda[p]];
+                int antes = fA.tam;
+                if (agregarFirst(fA, derecha[p], 0, leidos[p])) fA.agregar(EPS);
+                if (fA.tam != antes) {
+                    cambio = true;
+                    for (int q : lectores[izquierda[p]]) pendiente[q] = true;
+                }
+            }
+        } while (cambio);
+    }
+
+    private void calcularFollow(int inicial, int fin) {
+        if (inicial >= 0 && conConjuntos[inicial]) follow[inicial].agregar(fin);
+        // Producciones que leen SIGUIENTES(A): las de lado izquierdo A
+        int[][] lectores = lectores(false);
+        // PRIMEROS ya no cambia: lo que aporta cada cola se agrega en la primera evaluación
+        int[][] copiados = new int[derecha.length][];
+        boolean[] pendiente = new boolean[derecha.length];
+        Arrays.fill(pendiente, true);
+        boolean cambio;
+        do {
+            cambio = false;
+            for (int p = 0; p < derecha.length; p++) {
+                if (!pendiente[p]) continue;
+                pendiente[p] = false;
+                int[] rhs = derecha[p];
+                boolean primera = copiados[p] == null;
+                if (primera) copiados[p] = new int[rhs.length];
+                for (int i = 0; i < rhs.length; i++) {
+                    int B = rhs[i];
+                    if (!conConjuntos[B]) continue;
+                    conjunto fB = follow[B];
+                    int antes = fB.tam;
+                    int pos = inicioPosiciones[p] + i + 1;
+                    if (primera) {
+                        for (int a : firstSufijo[pos]) fB.agregar(a);
+                    }
+                    if (sufijoAnulable[pos]) copiados[p][i] = fB.agregarDesde(follow[izquierda[p]], copiados[p][i]);
+                    if (fB.tam != antes) {
+                        cambio = true;
+                        for (int q : lectores[B]) pendiente[q] = true;
+                    }
+                }
+            }
+        } while (cambio);
+    }
+
+    /**
+     * Agrega PRIMEROS(rhs[desde..]) sin ε, símbolo por símbolo, con los conjuntos tal como
+     * están ahora; devuelve si la secuencia es anulable. Las listas solo crecen por el
+     * final, así que si hay leidos cada PRIMEROS(x) se copia desde donde quedó la vez
+     * anterior: lo de antes ya está en destino y volver a agregarlo no cambia nada.
+     */
+    private boolean agregarFirst(conjunto destino, int[] rhs, int desde, int[] leidos) {
+        boolean anula = false;
+        for (int k = desde; k < rhs.length; k++) {
+            int x = rhs[k];
+            if (tipo[x] == EPSILON) continue;
+            if (tipo[x] == EPSILON_ANULA) {
+                anula = true;
+                continue;
+            }
+            if (tipo[x] == TERMINAL) {
+                destino.agregar(x);
+                return anula;
+            }
+            if (!tieneConjuntos(x)) return anula;
+            conjunto fx = first[x];
+            boolean eps = fx.contiene(EPS);
+            int hasta = destino.agregarDesde(fx, (leidos != null) ? leidos[k] : 0);
+            if (leidos != null) leidos[k] = hasta;
+            if (!eps) return anula;
+        }
+        return true;
+    }
+
+    /**
+     * Tabla de sufijos, de derecha a izquierda en cada producción: cada posición se arma
+     * con el símbolo y la posición siguiente, una sola vez, y queda en el mismo orden en
+     * que la recorrería {@link #agregarFirst}. Las posiciones que no agregan nada (ε, o
+     * el final) comparten la fila de la siguiente.
+     */
+    private void calcularSufijos() {
+        inicioPosiciones = new int[derecha.length + 1];
+        for (int p = 0; p < derecha.length; p++) {
+            inicioPosiciones[p + 1] = inicioPosiciones[p] + derecha[p].length + 1;
+        }
+        int total = inicioPosiciones[derecha.length];
+        int palabras = (tipo.length + 63) >>> 6;
+        firstSufijo = new int[total][];
+        bitsSufijo = new long[total][];
+        sufijoAnulable = new boolean[total];
+        int[] vacia = new int[0];
+        long[] sinBits = new long[palabras];
+        for (int p = 0; p < derecha.length; p++) {
+            int[] rhs = derecha[p];
+            int base = inicioPosiciones[p];
+            firstSufijo[base + rhs.length] = vacia;
+            bitsSufijo[base + rhs.length] = sinBits;
+            sufijoAnulable[base + rhs.length] = true;
+            for (int k = rhs.length - 1; k >= 0; k--) {
+                int x = rhs[k];
+                int pos = base + k;
+                if (tipo[x] == EPSILON || tipo[x] == EPSILON_ANULA) {
+                    firstSufijo[pos] = firstSufijo[pos + 1];
+                    bitsSufijo[pos] = bitsSufijo[pos + 1];
+                    sufijoAnulable[pos] = tipo[x] == EPSILON_ANULA || sufijoAnulable[pos + 1];
+                } else if (tipo[x] == TERMINAL) {
+                    firstSufijo[pos] = new int[]{ x };
+                    bitsSufijo[pos] = new long[palabras];
+                    bitsSufijo[pos][x >>> 6] |= 1L << x;
+                } else if (tieneConjuntos(x)) {
+                    conjunto fx = first[x];
+                    boolean eps = fx.contiene(EPS);
+                    int[] siguiente = eps ? firstSufijo[pos + 1] : vacia;
+                    int[] fila = new int[fx.tam + siguiente.length];
+                    long[] bits = new long[palabras];
+                    int n = 0;
+                    for (int j = 0; j < fx.tam; j++) {
+                        int a = fx.elementos[j];
+                        if (a != EPS) {
+                            fila[n++] = a;
+                            bits[a >>> 6] |= 1L << a;
+                        }
+                    }
+                    // Lo que aporta el resto queda después de lo de x, como al recorrer
+                    for (int a : siguiente) {
+                        if ((bits[a >>> 6] & (1L << a)) == 0) {
+                            fila[n++] = a;
+                            bits[a >>> 6] |= 1L << a;
+                        }
+                    }
+                    firstSufijo[pos] = Arrays.copyOf(fila, n);
+                    bitsSufijo[pos] = bits;
+                    sufijoAnulable[pos] = eps && sufijoAnulable[pos + 1];
+                } else {
+                    firstSufijo[pos] = vacia;
+                    bitsSufijo[pos] = sinBits;
+                }
+            }
+        }
+    }
+
+    /** lectores[x]: producciones que leen el conjunto de x, sin repetir. */
+    private int[][] lectores(boolean porDerecha) {
+        int n = tipo.length;
+        int[][] out = new int[n][];
+        int[] tam = new int[n];
+        int[] ultima = new int[n];
+        Arrays.fill(ultima, -1);
+        for (int p = 0; p < derecha.length; p++) {
+            if (porDerecha) {
+                for (int x : derecha[p]) anotar(out, tam, ultima, x, p);
+            } else {
+                anotar(out, tam, ultima, izquierda[p], p);
+            }
+        }
+        for (int x = 0; x < n; x++) out[x] = (out[x] == null) ? new int[0] : Arrays.copyOf(out[x], tam[x]);
+        return out;
+    }
+
+    private void anotar(int[][] out, int[] tam, int[] ultima, int x, int p) {
+        if (!conConjuntos[x] || ultima[x] == p) return;
+        ultima[x] = p;
+        if (out[x] == null) out[x] = new int[4];
+        else if (tam[x] == out[x].length) out[x] = Arrays.copyOf(out[x], tam[x] * 2);
+        out[x][tam[x]++] = p;
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /** PRIMEROS(A) en orden de descubrimiento; ε llega como {@link #EPS}. */
+    public void forEachFirst(int A, IntConsumer accion) {
+        if (first[A] != null) first[A].recorrer(accion);
+    }
+
+    /** SIGUIENTES(B) en orden de descubrimiento. */
+    public void forEachFollow(int B, IntConsumer accion) {
+        if (follow[B] != null) follow[B].recorrer(accion);
+    }
+
+    /** PRIMEROS(derecha[p][k..]) sin ε; k = longitud da el sufijo vacío. */
+    public boolean enFirstDeSufijo(int p, int k, int terminal) {
+        return terminal >= 0 && (bitsSufijo[inicioPosiciones[p] + k][terminal >>> 6] & (1L << terminal)) != 0;
+    }
+
+    /** Si derecha[p][k..] deriva ε. */
+    public boolean sufijoAnulable(int p, int k) {
+        return sufijoAnulable[inicioPosiciones[p] + k];
+    }
+
+    /** Terminales de PRIMEROS(derecha[p][k..]), en el orden en que los aporta la cola. */
+    public void forEachFirstDeSufijo(int p, int k, IntConsumer accion) {
+        for (int a : firstSufijo[inicioPosiciones[p] + k]) accion.accept(a);
+    }
+
+    /**
+     * PRIMEROS(derecha[p][k..]) como bits, uno por id de símbolo; es la fila interna y se
+     * comparte: no modificar.
+     */
+    public long[] firstDeSufijoBits(int p, int k) {
+        return bitsSufijo[inicioPosiciones[p] + k];
+    }
+
+    /** Lista en orden de inserción; ε ocupa la última marca de pertenencia. */
+    private static final class conjunto {
+        int[] elementos = new int[8];
+        int tam;
+        final boolean[] esta;
+
+        conjunto(int simbolos) {
+            esta = new boolean[simbolos + 1];
+        }
+
+        private int marca(int x) {
+            return (x == EPS) ? esta.length - 1 : x;
+        }
+
+        boolean contiene(int x) {
+            return esta[marca(x)];
+        }
+
+        void agregar(int x) {
+            int m = marca(x);
+            if (esta[m]) return;
+            esta[m] = true;
+            if (tam == elementos.length) elementos = Arrays.copyOf(elementos, tam * 2);
+            elementos[tam++] = x;
+        }
+
+        /** Agrega otro[desde..] sin ε y devuelve hasta dónde leyó; otro puede ser este mismo. */
+        int agregarDesde(conjunto otro, int desde) {
+            int n = otro.tam;
+            for (int j = desde; j < n; j++) {
+                if (otro.elementos[j] != EPS) agregar(otro.elementos[j]);
+            }
+            return n;
+        }
+
+        void recorrer(IntConsumer accion) {
+            for (int j = 0; j < tam; j++) accion.accept(elementos[j]);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.persistencia.analizadorSintacticoLR.tablaLR;
+
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.production;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Tabla LR(0) guardada en disco junto a la gramática ("gramatica.txt" → "gramatica.txt.lr0"),
+ * para no reconstruirla en cada ejecución. Al leerla el archivo se carga de una vez y los
+ * arreglos se copian directo, sin colección canónica ni PRIMEROS/SIGUIENTES. No se mapea:
+ * en Windows el mapeo bloquea el archivo hasta que lo libera el GC y no se podría reemplazar.
+ *
+ * Formato (big endian): "LR0T", versión, hash de la gramática, estados, terminales y no
+ * terminales (cadenas UTF-8 con su largo), filas ACCION y filas Ir_a con la codificación de
+ * {@link tablaDensa}, el orden de llenado de cada fila (cantidad y columnas) y un CRC32 de
+ * todo lo anterior. Si el archivo no existe, es de otra
+ * versión, tiene otro hash o el CRC no coincide, {@link #leer} devuelve null y quien llama
+ * reconstruye la tabla.
+ */
+public final class cacheTabla {
+
+    private static final int MAGICO = 0x4C523054;     // "LR0T"
+    private static final int VERSION = 2;
+    private static final String EXTENSION = ".lr0";
+
+    private cacheTabla() {}
+
+    /** Archivo de caché de la gramática. */
+    public static Path rutaPara(Path gramatica) {
+        return gramatica.resolveSibling(gramatica.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Tabla guardada para la gramática con ese hash, o null si no hay una válida.
+     * Las reglas no se guardan: se numeran de la gramática ya leída ({@link lr0Table#rules}).
+     */
+    public static lr0Table.Result leer(Path archivo, String hash, List<production> rules) {
+        if (!Files.isRegularFile(archivo)) return null;
+        try {
+            long largo = Files.size(archivo);
+            if (largo < 16 || largo > Integer.MAX_VALUE) return null;
+            byte[] bytes = Files.readAllBytes(archivo);
+            if (bytes.length != largo) return null;
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+
+            // CRC de todo menos los últimos 4 bytes
+            ByteBuffer datos = buf.duplicate();
+            datos.limit((int) largo - 4);
+            CRC32 crc = new CRC32();
+            crc.update(datos);
+            if ((int) crc.getValue() != buf.getInt((int) largo - 4)) return null;
+
+            if (buf.getInt() != MAGICO || buf.getInt() != VERSION) return null;
+            if (!hash.equals(leerCadena(buf))) return null;
+
+            int estados = buf.getInt();
+            List<String> terminals = leerCadenas(buf);
+            List<String> nonTerminals = leerCadenas(buf);
+            if (estados <= 0) return null;
+
+            int[][] accion = leerFilas(buf, estados, terminals.size());
+            int[][] irA = leerFilas(buf, estados, nonTerminals.size());
+            int[][] ordenAccion = leerOrden(buf, estados, terminals.size());
+            int[][] ordenIrA = leerOrden(buf, estados, nonTerminals.size());
+            return new lr0Table.Result(estados, terminals, nonTerminals,
+                    new tablaDensa(accion, irA, ordenAccion, ordenIrA, terminals, nonTerminals, rules), rules);
+        } catch (IOException | RuntimeException e) {
+            // Archivo truncado o dañado: se reconstruye
+            return null;
+        }
+    }
+
+    /**
+     * Guarda la tabla; se escribe a un temporal de nombre único en la misma carpeta y se
+     * renombra (de forma atómica si el sistema de archivos lo permite), para no dejar archivos
+     * a medias ni pisar el temporal de otro proceso. Si falla, se borra el temporal.
+     */
+    public static void escribir(Path archivo, String hash, lr0Table.Result r) throws IOException {
+        List<byte[]> cadenas = new ArrayList<>();
+        int bytesCadenas = 0;
+        for (String s : concatenar(List.of(hash), r.terminals, r.nonTerminals)) {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            cadenas.add(b);
+            bytesCadenas += 4 + b.length;
+        }
+        long orden = 0;
+        for (int i = 0; i < r.states; i++) {
+            orden += 8L + 4L * (r.densa.columnasAccion(i).length + r.densa.columnasIrA(i).length);
+        }
+        long largo = 4L + 4 + bytesCadenas + 4 + 4 + 4
+                + 4L * r.states * (r.terminals.size() + r.nonTerminals.size()) + orden + 4;
+        if (largo > Integer.MAX_VALUE) throw new IOException("Tabla demasiado grande para la caché");
+
+        ByteBuffer buf = ByteBuffer.allocate((int) largo);
+        buf.putInt(MAGICO).putInt(VERSION);
+        int k = 0;
+        escribirCadena(buf, cadenas.get(k++));
+        buf.putInt(r.states);
+        buf.putInt(r.terminals.size());
+        for (int i = 0; i < r.terminals.size(); i++) escribirCadena(buf, cadenas.get(k++));
+        buf.putInt(r.nonTerminals.size());
+        for (int i = 0; i < r.nonTerminals.size(); i++) escribirCadena(buf, cadenas.get(k++));
+        escribirFilas(buf, r, true);
+        escribirFilas(buf, r, false);
+        for (int i = 0; i < r.states; i++) escribirOrden(buf, r.densa.columnasAccion(i));
+        for (int i = 0; i < r.states; i++) escribirOrden(buf, r.densa.columnasIrA(i));
+
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, buf.position());
+        buf.putInt((int) crc.getValue());
+
+        Path temporal = Files.createTempFile(archivo.toAbsolutePath().getParent(), archivo.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporal, buf.array());
+            try {
+                Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                // Sistema de archivos sin renombrado atómico: un lector puede ver el archivo a
+                // medias, pero el CRC lo descarta
+                Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            // No dejar el temporal junto a la gramática
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException otra) {
+                e.addSuppressed(otra);
+            }
+            throw e;
+        }
+    }
+
+    private static void escribirFilas(ByteBuffer buf, lr0Table.Result r, boolean accion) {
+        for (int i = 0; i < r.states; i++) {
+            int[] fila = accion ? r.densa.filaAccion(i) : r.densa.filaIrA(i);
+            for (int v : fila) buf.putInt(v);
+        }
+    }
+
+    private static int[][] leerFilas(ByteBuffer buf, int filas, int columnas) {
+        if ((long) filas * columnas * 4 > buf.remaining()) throw new IllegalStateException("Caché truncada");
+        int[][] out = new int[filas][columnas];
+        for (int i = 0; i < filas; i++) {
+            buf.asIntBuffer().get(out[i]);
+            buf.position(buf.position() + 4 * columnas);
+        }
+        return out;
+    }
+
+    private static void escribirOrden(ByteBuffer buf, int[] columnas) {
+        buf.putInt(columnas.length);
+        for (int c : columnas) buf.putInt(c);
+    }
+
+    private static int[][] leerOrden(ByteBuffer buf, int filas, int columnas) {
+        int[][] out = new int[filas][];
+        for (int i = 0; i < filas; i++) {
+            int n = buf.getInt();
+            if (n < 0 || n > columnas) throw new IllegalStateException("Caché dañada");
+            out[i] = new int[n];
+            for (int k = 0; k < n; k++) {
+                out[i][k] = buf.getInt();
+                if (out[i][k] < 0 || out[i][k] >= columnas) throw new IllegalStateException("Caché dañada");
+            }
+        }
+        return out;
+    }
+
+    private static void escribirCadena(ByteBuffer buf, byte[] b) {
+        buf.putInt(b.length).put(b);
+    }
+
+    private static String leerCadena(ByteBuffer buf) {
+        int n = buf.getInt();
+        if (n < 0 || n > buf.remaining()) throw new IllegalStateException("Caché dañada");
+        byte[] b = new byte[n];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> leerCadenas(ByteBuffer buf) {
+        int n = buf.getInt();
+        if (n < 0 || n > buf.remaining() / 4) throw new IllegalStateException("Caché dañada");
+        List<String> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(leerCadena(buf));
+        return out;
+    }
+
+    @SafeVarargs
+    private static List<String> concatenar(List<String>... listas) {
+        List<String> out = new ArrayList<>();
+        for (List<String> l : listas) out.addAll(l);
+        return out;
+    }
+}
@@ -0,0 +1,184 @@
+package com.persistencia.analizadorSintacticoLR.tablaLR;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Escáner generado a partir de los terminales de una gramática, para {@link lrParser}.
+ * Se compila una vez: un trie con los terminales de símbolos (se elige el más largo),
+ * otro con las palabras clave, y las clases fijas de identificador y número que se
+ * reportan como "id" / "num" cuando la gramática los tiene.
+ *
+ * Los caracteres que no forman ningún terminal se ignoran, como en el lex original.
+ */
+public final class escanerTerminales {
+
+    private static final String ID = "id";
+    private static final String NUM = "num";
+
+    // Trie: hijos del nodo n en claves[n] (ordenadas) / hijos[n]; terminal aceptado en acepta[n]
+    private static final class trie {
+        final char[][] claves;
+        final int[][] hijos;
+        final String[] acepta;
+
+        trie(List<String> palabras) {
+            List<TreeMap<Character, Integer>> nodos = new ArrayList<>();
+            List<String> aceptados = new ArrayList<>();
+            nodos.add(new TreeMap<>());
+            aceptados.add(null);
+            for (String p : palabras) {
+                int nodo = 0;
+                for (int k = 0; k < p.length(); k++) {
+                    Integer sig = nodos.get(nodo).get(p.charAt(k));
+                    if (sig == null) {
+                        sig = nodos.size();
+                        nodos.get(nodo).put(p.charAt(k), sig);
+                        nodos.add(new TreeMap<>());
+                        aceptados.add(null);
+                    }
+                    nodo = sig;
+                }
+                aceptados.set(nodo, p);
+            }
+            claves = new char[nodos.size()][];
+            hijos = new int[nodos.size()][];
+            for (int n = 0; n < nodos.size(); n++) {
+                Map<Character, Integer> m = nodos.get(n);
+                claves[n] = new char[m.size()];
+                hijos[n] = new int[m.size()];
+                int k = 0;
+                for (Map.Entry<Character, Integer> e : m.entrySet()) {
+                    claves[n][k] = e.getKey();
+                    hijos[n][k++] = e.getValue();
+                }
+            }
+            acepta = aceptados.toArray(new String[0]);
+        }
+
+        /** Hijo de nodo por c, o -1. */
+        int hijo(int nodo, char c) {
+            char[] cs = claves[nodo];
+            int bajo = 0, alto = cs.length - 1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (cs[medio] < c) bajo = medio + 1;
+                else if (cs[medio] > c) alto = medio - 1;
+                else return hijos[nodo][medio];
+            }
+            return -1;
+        }
+    }
+
+    private final trie simbolos;
+    private final trie palabrasClave;
+    private final boolean hayId;
+    private final boolean hayNum;
+
+    private escanerTerminales(trie simbolos, trie palabrasClave, boolean hayId, boolean hayNum) {
+        this.simbolos = simbolos;
+        this.palabrasClave = palabrasClave;
+        this.hayId = hayId;
+        this.hayNum = hayNum;
+    }
+
+    /** Compila el escáner para el conjunto de terminales (se ignora "$"). */
+    public static escanerTerminales compilar(Collection<String> terminales) {
+        List<String> simbolos = new ArrayList<>();
+        List<String> palabras = new ArrayList<>();
+        for (String t : terminales) {
+            if (t.isEmpty() || t.equals("$")) continue;
+            if (t.matches("[A-Za-z_][A-Za-z_0-9]*")) {
+                if (!t.equals(ID)) palabras.add(t);
+            } else if (!iniciaPalabraONumero(t.charAt(0))) {
+                simbolos.add(t);
+            }
+        }
+        return new escanerTerminales(new trie(simbolos), new trie(palabras),
+                terminales.contains(ID), terminales.contains(NUM));
+    }
+
+    public List<String> escanear(CharSequence programa) {
+        List<String> out = new ArrayList<>();
+        flujo(programa).forEachRemaining(out::add);
+        return out;
+    }
+
+    /** Terminales del programa uno a uno; el último es "$". */
+    public Iterator<String> flujo(CharSequence programa) {
+        return new Iterator<String>() {
+            private int i = 0;
+            private boolean finEmitido = false;
+
+            @Override public boolean hasNext() { return !finEmitido; }
+
+            @Override public String next() {
+                if (finEmitido) throw new NoSuchElementException();
+                String t = siguiente(programa);
+                if (t == null) {
+                    finEmitido = true;
+                    return "$";
+                }
+                return t;
+            }
+
+            private String siguiente(CharSequence p) {
+                int n = p.length();
+                while (i < n) {
+                    char ch = p.charAt(i);
+                    if (Character.isWhitespace(ch)) { i++; continue; }
+
+                    // Símbolos: el terminal más largo que empiece aquí
+                    String mejor = null;
+                    int fin = i;
+                    for (int j = i, nodo = 0; j < n; j++) {
+                        nodo = simbolos.hijo(nodo, p.charAt(j));
+                        if (nodo < 0) break;
+                        if (simbolos.acepta[nodo] != null) {
+                            mejor = simbolos.acepta[nodo];
+                            fin = j + 1;
+                        }
+                    }
+                    if (mejor != null) { i = fin; return mejor; }
+
+                    if (Character.isLetter(ch) || ch == '_') {
+                        int j = i + 1;
+                        while (j < n && (Character.isLetterOrDigit(p.charAt(j)) || p.charAt(j) == '_')) j++;
+                        String clave = palabraClave(p, i, j);
+                        int desde = i;
+                        i = j;
+                        if (clave != null) return clave;
+                        return hayId ? ID : p.subSequence(desde, j).toString();
+                    }
+                    if (Character.isDigit(ch)) {
+                        int j = i + 1;
+                        while (j < n && Character.isDigit(p.charAt(j))) j++;
+                        int desde = i;
+                        i = j;
+                        if (hayNum) return NUM;
+                        return hayId ? ID : p.subSequence(desde, j).toString();
+                    }
+                    i++;
+                }
+                return null;
+            }
+        };
+    }
+
+    private String palabraClave(CharSequence p, int desde, int hasta) {
+        int nodo = 0;
+        for (int k = desde; k < hasta && nodo >= 0; k++) {
+            nodo = palabrasClave.hijo(nodo, p.charAt(k));
+        }
+        return (nodo >= 0) ? palabrasClave.acepta[nodo] : null;
+    }
+
+    private static boolean iniciaPalabraONumero(char c) {
+        return Character.isLetter(c) || c == '_' || Character.isDigit(c);
+    }
+}
@@ -0,0 +1,205 @@
+package com.persistencia.analizadorSintacticoLR.tablaLR;
+
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.production;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backend experimental: genera un analizador de ascenso recursivo a partir de la tabla
+ * LR(0). Cada estado es un método; desplazar es llamar al método del estado destino y
+ * reducir es volver: la regla deja en faltan cuántos marcos hay que desapilar y cada
+ * método que regresa descuenta uno. El marco que queda expuesto hace el Ir_a con un
+ * switch sobre el no terminal. Las tablas quedan como constantes en los switch.
+ *
+ * La pila LR es la pila de llamadas de Java, así que la profundidad de recursión es la
+ * altura de la pila LR (profunda con recursión por la derecha). Si la entrada anida más de
+ * lo que cabe en la pila del hilo (-Xss), el analizar(int[]) generado lanza
+ * IllegalStateException (con el StackOverflowError como causa) en lugar de confundirlo con
+ * un error de sintaxis; para entradas así conviene la clase de {@link generadorParser}, cuya pila crece en el heap. La clase
+ * generada tiene la misma interfaz que la de {@link generadorParser}.
+ *
+ * Uso: java ... generadorAscensoRecursivo gramatica.txt carpetaSalida paquete Clase
+ */
+public final class generadorAscensoRecursivo {
+
+    private generadorAscensoRecursivo() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 4) {
+            System.err.println("Uso: generadorAscensoRecursivo <gramática> <carpeta de salida> <paquete> <Clase>");
+            System.exit(2);
+        }
+        Path salida = escribir(lr0Table.buildFromFile(args[0]), Path.of(args[1]), args[2], args[3]);
+        System.out.println("Generado " + salida);
+    }
+
+    /** Escribe paquete/Clase.java bajo carpeta y devuelve la ruta del archivo. */
+    public static Path escribir(lr0Table.Result r, Path carpeta, String paquete, String clase) throws IOException {
+        Path dir = paquete.isEmpty() ? carpeta : carpeta.resolve(paquete.replace('.', '/'));
+        Files.createDirectories(dir);
+        Path archivo = dir.resolve(clase + ".java");
+        Files.writeString(archivo, generar(r, paquete, clase), StandardCharsets.UTF_8);
+        return archivo;
+    }
+
+    /** Código fuente de la clase; paquete vacío = paquete por defecto. */
+    public static String generar(lr0Table.Result r, String paquete, String clase) {
+        if (r.rules == null) throw new IllegalArgumentException("La tabla no tiene reglas numeradas");
+        tablaDensa t = r.densa;
+        List<production> rules = r.rules;
+        String[] texto = new String[rules.size() + 1];
+        texto[0] = "";
+        for (int k = 1; k <= rules.size(); k++) {
+            production p = rules.get(k - 1);
+            texto[k] = p.left + " -> " + String.join(" ", p.right);
+        }
+
+        StringBuilder s = new StringBuilder();
+        if (!paquete.isEmpty()) s.append("package ").append(paquete).append(";\n\n");
+        s.append("import java.util.HashMap;\n")
+         .append("import java.util.List;\n")
+         .append("import java.util.Map;\n\n")
+         .append("/**\n")
+         .append(" * Analizador LR(0) de ascenso recursivo generado por generadorAscensoRecursivo; no editar a mano.\n")
+         .append(" * ").append(t.numEstados()).append(" estados, un método por estado.\n")
+         .append(" *\n")
+         .append(" * La pila LR es la pila de llamadas: la profundidad de anidamiento que se admite depende\n")
+         .append(" * del tamaño de la pila del hilo (-Xss). Si se agota, analizar lanza IllegalStateException.\n")
+         .append(" */\n")
+         .append("public final class ").append(clase).append(" {\n\n")
+         .append("    public static final int FIN = ").append(t.terminal("$")).append(";      // columna de \"$\"\n")
+         .append("    private static final int EN_CURSO = -2;\n\n");
+        generadorParser.cadenas(s, "TERMINALES", r.terminals.toArray(new String[0]));
+        generadorParser.cadenas(s, "REGLAS", texto);
+
+        s.append("""
+
+                    private static final Map<String, Integer> COLUMNA = new HashMap<>();
+                    static {
+                        for (int c = 0; c < TERMINALES.length; c++) COLUMNA.putIfAbsent(TERMINALES[c], c);
+                    }
+
+                    private final int[] entrada;
+                    private int pos;
+                    private int a;                 // columna del símbolo de preanálisis
+                    private int faltan;            // marcos por desapilar de la última reducción
+                    private int izq;               // no terminal de la última reducción
+                    private int resultado = EN_CURSO;
+
+                    private %s(int[] entrada) {
+                        this.entrada = entrada;
+                        this.a = (entrada.length > 0) ? entrada[0] : FIN;
+                    }
+
+                    /** Columna del terminal, o -1 si la gramática no lo tiene. */
+                    public static int terminal(String nombre) {
+                        Integer c = COLUMNA.get(nombre);
+                        return (c == null) ? -1 : c;
+                    }
+
+                    /** Tokens como nombres de terminal; ver {@link #analizar(int[])}. */
+                    public static int analizar(List<String> tokens) {
+                        int[] entrada = new int[tokens.size()];
+                        for (int i = 0; i < entrada.length; i++) entrada[i] = terminal(tokens.get(i));
+                        return analizar(entrada);
+                    }
+
+                    /**
+                     * Analiza la entrada (columnas de terminal); al acabarse se lee "$".
+                     * Devuelve -1 si se acepta o la posición del token donde hubo error.
+                     *
+                     * @throws IllegalStateException si el anidamiento de la entrada no cabe en
+                     *         la pila del hilo (-Xss); no dice nada sobre si la entrada es válida
+                     */
+                    public static int analizar(int[] entrada) {
+                        %s p = new %s(entrada);
+                        try {
+                            p.e0();
+                        } catch (StackOverflowError e) {
+                            throw new IllegalStateException("El anidamiento de la entrada excede la pila del hilo (-Xss) en la posición " + p.pos, e);
+                        }
+                        return p.resultado;
+                    }
+
+                    private void desplazar() {
+                        pos++;
+                        a = (pos < entrada.length) ? entrada[pos] : FIN;
+                    }
+
+                    private void sinIrA(int estado) {
+                        throw new IllegalStateException("Ir_a[" + estado + ", " + izq + "] no definido");
+                    }
+                """.formatted(clase, clase, clase));
+
+        for (int i = 0; i < t.numEstados(); i++) estado(s, r, i);
+        s.append("}\n");
+        return s.toString();
+    }
+
+    /** Método del estado i: switch de ACCION y, tras cada retorno, desapilar o Ir_a. */
+    private static void estado(StringBuilder s, lr0Table.Result r, int i) {
+        tablaDensa t = r.densa;
+        int[] fila = t.filaAccion(i);
+
+        // Columnas agrupadas por acción, en el orden de la primera columna
+        Map<Integer, List<Integer>> porAccion = new LinkedHashMap<>();
+        for (int c = 0; c < fila.length; c++) {
+            if (fila[c] != tablaDensa.ERROR) porAccion.computeIfAbsent(fila[c], unused -> new ArrayList<>()).add(c);
+        }
+
+        s.append("\n    private void e").append(i).append("() {\n")
+         .append("        switch (a) {\n");
+        for (Map.Entry<Integer, List<Integer>> e : porAccion.entrySet()) {
+            int act = e.getKey();
+            s.append("            ");
+            for (int c : e.getValue()) s.append("case ").append(c).append(": ");
+            if (act == tablaDensa.ACEPTAR) {
+                s.append("resultado = -1; return;\n");
+            } else if (tablaDensa.esDesplazar(act)) {
+                s.append("desplazar(); e").append(tablaDensa.estado(act)).append("(); break;\n");
+            } else {
+                int k = tablaDensa.regla(act);
+                production p = r.rules.get(k - 1);
+                s.append("faltan = ").append(generadorParser.largoDerecha(p.right))
+                 .append("; izq = ").append(t.noTerminal(p.left)).append("; break;")
+                 .append("     // r").append(k).append(": ").append(comentario(p.left + " -> " + String.join(" ", p.right)))
+                 .append('\n');
+            }
+        }
+        s.append("            default: resultado = pos; return;\n")
+         .append("        }\n");
+        // Solo aceptar: todas las ramas vuelven y el ciclo no se alcanza
+        boolean soloAceptar = porAccion.keySet().stream().allMatch(act -> act == tablaDensa.ACEPTAR);
+        if (soloAceptar) {
+            s.append("    }\n");
+            return;
+        }
+        s.append("        while (true) {\n")
+         .append("            if (resultado != EN_CURSO) return;\n")
+         .append("            if (faltan > 0) { faltan--; return; }\n")
+         .append("            switch (izq) {\n");
+        int[] irA = t.filaIrA(i);
+        for (int A = 0; A < irA.length; A++) {
+            if (irA[A] != tablaDensa.SIN_IR_A) {
+                s.append("                case ").append(A).append(": e").append(irA[A]).append("(); break;")
+                 .append("     // ").append(comentario(r.nonTerminals.get(A))).append('\n');
+            }
+        }
+        s.append("                default: sinIrA(").append(i).append(");\n")
+         .append("            }\n")
+         .append("        }\n")
+         .append("    }\n");
+    }
+
+    /** Texto seguro dentro de un comentario //: sin saltos de línea ni escapes \\u. */
+    private static String comentario(String texto) {
+        return texto.replace("\\", "\\\\").replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -0,0 +1,236 @@
+package com.persistencia.analizadorSintacticoLR.tablaLR;
+
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.production;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Genera el código fuente de un analizador LR(0) independiente a partir de una tabla ya
+ * construida, en la línea de lo que hace CUP con parser.cup: una clase con las tablas en
+ * campos static final int[] y un ciclo de análisis sobre una pila de enteros, sin mapas ni
+ * objetos por paso. La clase generada no depende de este proyecto.
+ *
+ * Las tablas se escriben como cadenas y se desempacan al cargar la clase (como los
+ * unpackFromStrings de CUP): un arreglo literal de este tamaño no cabe en los 64 KB de un
+ * inicializador estático. Cada casilla es un char (valor + {@link #DESPLAZAMIENTO}), así
+ * que estados y reglas deben caber en 15 bits.
+ *
+ * Uso: java ... generadorParser gramatica.txt carpetaSalida paquete Clase
+ */
+public final class generadorParser {
+
+    private static final int DESPLAZAMIENTO = 0x20;    // ERROR (0) queda como ' '
+    private static final int MAX_TROZO = 16000;       // chars por literal (< 65535 bytes en UTF-8)
+    private static final int POR_LINEA = 40;
+
+    private generadorParser() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 4) {
+            System.err.println("Uso: generadorParser <gramática> <carpeta de salida> <paquete> <Clase>");
+            System.exit(2);
+        }
+        Path salida = escribir(lr0Table.buildFromFile(args[0]), Path.of(args[1]), args[2], args[3]);
+        System.out.println("Generado " + salida);
+    }
+
+    /** Escribe paquete/Clase.java bajo carpeta y devuelve la ruta del archivo. */
+    public static Path escribir(lr0Table.Result r, Path carpeta, String paquete, String clase) throws IOException {
+        Path dir = paquete.isEmpty() ? carpeta : carpeta.resolve(paquete.replace('.', '/'));
+        Files.createDirectories(dir);
+        Path archivo = dir.resolve(clase + ".java");
+        Files.writeString(archivo, generar(r, paquete, clase), StandardCharsets.UTF_8);
+        return archivo;
+    }
+
+    /** Código fuente de la clase; paquete vacío = paquete por defecto. */
+    public static String generar(lr0Table.Result r, String paquete, String clase) {
+        if (r.rules == null) throw new IllegalArgumentException("La tabla no tiene reglas numeradas");
+        tablaDensa t = r.densa;
+        int estados = t.numEstados(), nT = r.terminals.size(), nN = r.nonTerminals.size();
+
+        int[] accion = new int[estados * nT];
+        int[] irA = new int[estados * nN];
+        for (int i = 0; i < estados; i++) {
+            System.arraycopy(t.filaAccion(i), 0, accion, i * nT, nT);
+            System.arraycopy(t.filaIrA(i), 0, irA, i * nN, nN);
+        }
+        List<production> rules = r.rules;
+        int[] largo = new int[rules.size() + 1];
+        int[] izquierda = new int[rules.size() + 1];
+        String[] texto = new String[rules.size() + 1];
+        texto[0] = "";
+        for (int k = 1; k <= rules.size(); k++) {
+            production p = rules.get(k - 1);
+            largo[k] = largoDerecha(p.right);
+            izquierda[k] = t.noTerminal(p.left);
+            texto[k] = p.left + " -> " + String.join(" ", p.right);
+        }
+
+        StringBuilder s = new StringBuilder();
+        if (!paquete.isEmpty()) s.append("package ").append(paquete).append(";\n\n");
+        s.append("import java.util.HashMap;\n")
+         .append("import java.util.List;\n")
+         .append("import java.util.Map;\n\n")
+         .append("/**\n")
+         .append(" * Analizador LR(0) generado por generadorParser; no editar a mano.\n")
+         .append(" * ").append(estados).append(" estados, ").append(nT).append(" terminales, ")
+         .append(nN).append(" no terminales, ").append(rules.size()).append(" reglas.\n")
+         .append(" *\n")
+         .append(" * ACCION: 0 error, j + 1 desplaza a j, -k reduce por la regla k, Integer.MIN_VALUE acepta.\n")
+         .append(" */\n")
+         .append("public final class ").append(clase).append(" {\n\n")
+         .append("    public static final int ESTADOS = ").append(estados).append(";\n")
+         .append("    public static final int NUM_TERMINALES = ").append(nT).append(";\n")
+         .append("    public static final int NUM_NO_TERMINALES = ").append(nN).append(";\n")
+         .append("    public static final int ACEPTAR = Integer.MIN_VALUE;\n")
+         .append("    public static final int FIN = ").append(t.terminal("$")).append(";      // columna de \"$\"\n\n");
+
+        cadenas(s, "TERMINALES", r.terminals.toArray(new String[0]));
+        cadenas(s, "NO_TERMINALES", r.nonTerminals.toArray(new String[0]));
+        cadenas(s, "REGLAS", texto);
+        s.append("\n    /** ACCION[estado * NUM_TERMINALES + terminal]. */\n");
+        tabla(s, "ACCION", accion);
+        s.append("\n    /** Ir_a[estado * NUM_NO_TERMINALES + noTerminal]; -1 sin entrada. */\n");
+        tabla(s, "IR_A", irA);
+        s.append("\n    /** Símbolos del lado derecho de la regla k (ε cuenta 0). */\n");
+        tabla(s, "LARGO_REGLA", largo);
+        s.append("\n    /** Columna Ir_a del lado izquierdo de la regla k. */\n");
+        tabla(s, "IZQUIERDA_REGLA", izquierda);
+
+        s.append("""
+
+                    private static final Map<String, Integer> COLUMNA = new HashMap<>();
+                    static {
+                        for (int c = 0; c < TERMINALES.length; c++) COLUMNA.putIfAbsent(TERMINALES[c], c);
+                    }
+
+                    private %s() {}
+
+                    /** Columna del terminal, o -1 si la gramática no lo tiene. */
+                    public static int terminal(String nombre) {
+                        Integer c = COLUMNA.get(nombre);
+                        return (c == null) ? -1 : c;
+                    }
+
+                    /** Tokens como nombres de terminal; ver {@link #analizar(int[])}. */
+                    public static int analizar(List<String> tokens) {
+                        int[] entrada = new int[tokens.size()];
+                        for (int i = 0; i < entrada.length; i++) entrada[i] = terminal(tokens.get(i));
+                        return analizar(entrada);
+                    }
+
+                    /**
+                     * Analiza la entrada (columnas de terminal); al acabarse se lee "$", como en
+                     * lrParser. Devuelve -1 si se acepta o la posición del token donde hubo error.
+                     * Un Ir_a sin entrada tras reducir es una tabla inconsistente y lanza
+                     * IllegalStateException, igual que lrParser.
+                     */
+                    public static int analizar(int[] entrada) {
+                        int[] pila = new int[64];
+                        int tope = 0;
+                        pila[0] = 0;
+                        int pos = 0;
+                        while (true) {
+                            int a = (pos < entrada.length) ? entrada[pos] : FIN;
+                            int act = (a < 0) ? 0 : ACCION[pila[tope] * NUM_TERMINALES + a];
+                            if (act > 0) {
+                                if (++tope == pila.length) pila = java.util.Arrays.copyOf(pila, tope * 2);
+                                pila[tope] = act - 1;
+                                pos++;
+                            } else if (act == ACEPTAR) {
+                                return -1;
+                            } else if (act < 0) {
+                                int k = -act;
+                                tope -= LARGO_REGLA[k];
+                                int s = IR_A[pila[tope] * NUM_NO_TERMINALES + IZQUIERDA_REGLA[k]];
+                                if (s == -1) {
+                                    throw new IllegalStateException("Ir_a[" + pila[tope] + "," + NO_TERMINALES[IZQUIERDA_REGLA[k]]
+                                            + "] no definido en reducción r" + k);
+                                }
+                                if (++tope == pila.length) pila = java.util.Arrays.copyOf(pila, tope * 2);
+                                pila[tope] = s;
+                            } else {
+                                return pos;
+                            }
+                        }
+                    }
+
+                    private static int[] desempacar(String... trozos) {
+                        int n = 0;
+                        for (String t : trozos) n += t.length();
+                        int[] out = new int[n];
+                        int i = 0;
+                        for (String t : trozos) {
+                            for (int c = 0; c < t.length(); c++) {
+                                int v = (short) (t.charAt(c) - %d);
+                                out[i++] = (v == Short.MIN_VALUE) ? ACEPTAR : v;
+                            }
+                        }
+                        return out;
+                    }
+                }
+                """.formatted(clase, DESPLAZAMIENTO));
+        return s.toString();
+    }
+
+    // ==================== ESCRITURA ====================
+
+    static void cadenas(StringBuilder s, String nombre, String[] valores) {
+        s.append("    public static final String[] ").append(nombre).append(" = {");
+        for (int i = 0; i < valores.length; i++) {
+            s.append(i % 8 == 0 ? "\n        " : " ").append('"');
+            literal(s, valores[i]);
+            s.append("\",");
+        }
+        s.append("\n    };\n");
+    }
+
+    /** Campo static final int[] con los valores empacados en trozos de cadena. */
+    static void tabla(StringBuilder s, String nombre, int[] valores) {
+        s.append("    static final int[] ").append(nombre).append(" = desempacar(");
+        int trozos = Math.max(1, (valores.length + MAX_TROZO - 1) / MAX_TROZO);
+        for (int k = 0; k < trozos; k++) {
+            int desde = k * MAX_TROZO, hasta = Math.min(valores.length, desde + MAX_TROZO);
+            s.append(k > 0 ? ",\n        \"" : "\n        \"");
+            for (int i = desde; i < hasta; i++) {
+                if (i > desde && (i - desde) % POR_LINEA == 0) s.append("\" +\n        \"");
+                literal(s, String.valueOf(empacar(valores[i])));
+            }
+            s.append('"');
+        }
+        s.append(");\n");
+    }
+
+    private static char empacar(int v) {
+        if (v == tablaDensa.ACEPTAR) return (char) (Short.MIN_VALUE + DESPLAZAMIENTO);
+        if (v <= Short.MIN_VALUE || v > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Valor fuera de rango para la tabla generada: " + v);
+        }
+        return (char) (v + DESPLAZAMIENTO);
+    }
+
+    /** Texto como contenido de un literal Java: ASCII imprimible tal cual, el resto escapado. */
+    static void literal(StringBuilder s, String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"' || c == '\\') s.append('\\').append(c);
+            else if (c >= 0x20 && c < 0x7F) s.append(c);
+            else if (c < 0x100) s.append(String.format("\\%03o", (int) c));
+            else s.append(String.format("\\u%04x", (int) c));
+        }
+    }
+
+    static int largoDerecha(List<String> right) {
+        if (right == null || right.isEmpty()) return 0;
+        if (right.size() == 1) {
+            String t = right.get(0) == null ? "" : right.get(0).trim();
+            if (t.equals("ε") || t.equalsIgnoreCase("epsilon")) return 0;
+        }
+        return right.size();
+    }
+}
@@ -1,9 +1,10 @@
 package com.persistencia.analizadorSintacticoLR.tablaLR;
 
-import com.persistencia.analizadorSintacticoLR.coleccionCanonica.canonicalLR;
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.CompiledGrammar;
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.LR0Automaton;
 import com.persistencia.analizadorSintacticoLR.coleccionCanonica.grammar;
-import com.persistencia.analizadorSintacticoLR.coleccionCanonica.itemLR0;
 import com.persistencia.analizadorSintacticoLR.coleccionCanonica.production;
+import com.persistencia.analizadorSintacticoLR.primerosYSiguientes.FirstFollowOrden;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -12,23 +13,87 @@ public final class lr0Table {
 
     private lr0Table() {}
 
+    /**
+     * Tabla LR(0). La forma de trabajo es {@link #densa} (arreglos int por estado); los
+     * mapas de texto de {@link #action()} y {@link #gotoTable()} se arman al primer uso,
+     * para la GUI.
+     */
     public static final class Result {
         public final int states;
         public final List<String> terminals;                  // columnas ACCION
         public final List<String> nonTerminals;               // columnas Ir_a
-        public final Map<Integer, Map<String, String>> action;
-        public final Map<Integer, Map<String, Integer>> gotoTable;
+        public final tablaDensa densa;
+        public final List<production> rules;                  // regla k = rules.get(k - 1); null si no se conoce
+        private volatile Map<Integer, Map<String, String>> action;
+        private volatile Map<Integer, Map<String, Integer>> gotoTable;
+        private volatile escanerTerminales escaner;              // se compila al primer uso
 
         public Result(int states,
                       List<String> terminals,
                       List<String> nonTerminals,
                       Map<Integer, Map<String, String>> action,
                       Map<Integer, Map<String, Integer>> gotoTable) {
+            this(states, terminals, nonTerminals, action, gotoTable, null);
+        }
+
+        /** Tabla armada a mano con mapas de texto ("d5", "r3", "acep"); se convierte a la forma densa. */
+        public Result(int states,
+                      List<String> terminals,
+                      List<String> nonTerminals,
+                      Map<Integer, Map<String, String>> action,
+                      Map<Integer, Map<String, Integer>> gotoTable,
+                      List<production> rules) {
+            this(states, terminals, nonTerminals,
+                 tablaDensa.desdeMapas(states, terminals, nonTerminals, action, gotoTable, rules), rules);
+            this.action = action;
+            this.gotoTable = gotoTable;
+        }
+
+        public Result(int states,
+                      List<String> terminals,
+                      List<String> nonTerminals,
+                      tablaDensa densa,
+                      List<production> rules) {
             this.states = states;
             this.terminals = terminals;
             this.nonTerminals = nonTerminals;
-            this.action = action;
-            this.gotoTable = gotoTable;
+            this.densa = densa;
+            this.rules = rules;
+        }
+
+        /** ACCION por estado y terminal, como texto ("d5", "r3", "acep"); solo estados con entradas. */
+        public Map<Integer, Map<String, String>> action() {
+            Map<Integer, Map<String, String>> m = action;
+            if (m == null) {
+                m = Collections.unmodifiableMap(densa.comoMapaAccion(terminals));
+                action = m;
+            }
+            return m;
+        }
+
+        /** Ir_a por estado y no terminal; solo estados con entradas. */
+        public Map<Integer, Map<String, Integer>> gotoTable() {
+            Map<Integer, Map<String, Integer>> m = gotoTable;
+            if (m == null) {
+                m = Collections.unmodifiableMap(densa.comoMapaIrA(nonTerminals));
+                gotoTable = m;
+            }
+            return m;
+        }
+
+        /** Forma comprimida de la tabla (ver {@link tablaComprimida}); se arma en cada llamada. */
+        public tablaComprimida comprimir(boolean reduccionesPorDefecto) {
+            return tablaComprimida.comprimir(densa, reduccionesPorDefecto);
+        }
+
+        /** Escáner de los terminales de esta tabla, compilado una vez y reutilizado. */
+        public escanerTerminales escaner() {
+            escanerTerminales e = escaner;
+            if (e == null) {
+                e = escanerTerminales.compilar(terminals);
+                escaner = e;
+            }
+            return e;
         }
     }
 
@@ -38,38 +103,39 @@ public final class lr0Table {
         String t = s.trim();
         return t.equals("ε") || t.equalsIgnoreCase("epsilon");
     }
-    private static boolean isEpsilonProduction(production p) {
-        return p.right != null && p.right.size() == 1 && isEpsilonSymbol(p.right.get(0));
-    }
 
     /** Construye la tabla desde un archivo de gramática aumentada (con S'→S $). */
     public static Result buildFromFile(String path) throws Exception {
+        return build(grammar.parseAugmentedGrammar(path));
+    }
 
-        // 1) Gramática aumentada
-        grammar gAug = grammar.parseAugmentedGrammar(path);
+    /** Construye la tabla de una gramática aumentada ya leída. */
+    public static Result build(grammar gAug) {
+        return build(LR0Automaton.construir(gAug));
+    }
+
+    /** Construye la tabla sobre un autómata ya construido (el mismo que usa el reporte). */
+    public static Result build(LR0Automaton automata) {
+
+        // 1) Gramática aumentada, compilada a ids
+        CompiledGrammar g = automata.gramatica();
+        grammar gAug = g.fuente;
 
         // Normalización de conjuntos
         Set<String> Nset = gAug.N.stream().map(lr0Table::norm).collect(Collectors.toCollection(LinkedHashSet::new));
         Set<String> Tset = gAug.T.stream().map(lr0Table::norm).collect(Collectors.toCollection(LinkedHashSet::new));
 
-        // 2) Colección canónica
-        List<Set<itemLR0>> C = canonicalLR.canonicalCollection(gAug);
+        // 2) Colección canónica: los estados y sus transiciones vienen del autómata
+        int estados = automata.numEstados();
 
         // 3) FIRST/FOLLOW desde la gramática aumentada
-        FirstFollowFF ff = computeFirstFollowFromAugmented(gAug);
+        FirstFollowOrden ff = computeFirstFollowFromAugmented(g, Nset);
 
-        // 4) Numeración de reglas (sin S')
-        List<production> prods = new ArrayList<>();
-        for (String A : gAug.byLeft.keySet()) {
-            if (A.endsWith("'")) continue;
-            prods.addAll(gAug.byLeft.get(A));
-        }
-        Map<production, Integer> ruleNum = new LinkedHashMap<>();
-        for (int i = 0; i < prods.size(); i++) ruleNum.put(prods.get(i), i + 1);
+        // 4) Numeración de reglas (sin S'); una regla repetida se queda con su último número
+        List<production> rules = rules(gAug);
+        int[] ruleNum = new int[g.numProducciones()];
+        for (int k = 1; k <= rules.size(); k++) ruleNum[g.id(rules.get(k - 1))] = k;
 
-        // 5) Tablas
-        Map<Integer, Map<String, String>> ACTION = new LinkedHashMap<>();
-        Map<Integer, Map<String, Integer>> GOTO  = new LinkedHashMap<>();
 
         // ===== Columnas: conservar TODOS los terminales; reordenar sin perder =====
         List<String> T = new ArrayList<>(new LinkedHashSet<>(Tset));
@@ -97,149 +163,134 @@ public final class lr0Table {
             N = new ArrayList<>(orderedN);
         }
 
-        Map<Set<itemLR0>, Integer> idx = new LinkedHashMap<>();
-        for (int i = 0; i < C.size(); i++) idx.put(C.get(i), i);
-
-        for (int i = 0; i < C.size(); i++) {
-            Set<itemLR0> I = C.get(i);
-
-            Set<String> symbols = new LinkedHashSet<>();
-            for (itemLR0 it : I) {
-                String x = norm(it.symbolAfterDot());
-                if (x != null && !isEpsilonSymbol(x)) symbols.add(x);
+        // Datos por símbolo (id), calculados una sola vez
+        int nSim = g.numSimbolos();
+        String[] nombre = new String[nSim];
+        boolean[] columnaT = new boolean[nSim], columnaN = new boolean[nSim], epsilon = new boolean[nSim];
+        Set<String> enT = new HashSet<>(T), enN = new HashSet<>(N);
+        for (int x = 0; x < nSim; x++) {
+            nombre[x] = norm(g.nombre(x));
+            columnaT[x] = enT.contains(nombre[x]);
+            columnaN[x] = enN.contains(nombre[x]);
+            epsilon[x] = isEpsilonSymbol(nombre[x]);
+        }
+        // 5) Tablas densas: columna de cada símbolo, -1 si no es columna
+        int[] colT = new int[nSim], colN = new int[nSim];
+        for (int x = 0; x < nSim; x++) {
+            colT[x] = columnaT[x] ? T.indexOf(nombre[x]) : -1;
+            colN[x] = columnaN[x] ? N.indexOf(nombre[x]) : -1;
+        }
+        int finCol = T.indexOf("$");
+        int[][] ACTION = new int[estados][T.size()];
+        int[][] GOTO = new int[estados][N.size()];
+        for (int[] fila : GOTO) Arrays.fill(fila, tablaDensa.SIN_IR_A);
+        // Orden en que se llena cada fila: el de las filas de texto de siempre
+        int[][] ordenAccion = new int[estados][], ordenIrA = new int[estados][];
+        int[] orden = new int[Math.max(T.size(), N.size())];
+
+        boolean[] aumentada = new boolean[g.numProducciones()];
+        for (int p = 0; p < aumentada.length; p++) aumentada[p] = g.produccion(p).left.endsWith("'");
+
+        for (int i = 0; i < estados; i++) {
+            int[] I = automata.items(i);
+            int[] symbols = automata.simbolos(i);
+            int[] destinos = automata.destinos(i);
+
+            final int[] fila = ACTION[i];
+            final int[] llenas = {0};
+            for (int k = 0; k < symbols.length; k++) {
+                int a = symbols[k];
+                if (columnaT[a] && !epsilon[a]) {
+                    if (fila[colT[a]] == tablaDensa.ERROR) orden[llenas[0]++] = colT[a];
+                    fila[colT[a]] = tablaDensa.desplazar(destinos[k]);
+                }
             }
 
-            for (String a : symbols) {
-                if (T.contains(a)) {
-                    Set<itemLR0> J = canonicalLR.goTo(gAug, I, a);
-                    Integer j = idx.get(J);
-                    if (j == null) for (int k = 0; k < C.size(); k++) if (C.get(k).equals(J)) { j = k; break; }
-                    if (j != null) ACTION.computeIfAbsent(i, unused -> new LinkedHashMap<>()).put(a, "d"+j);
+            boolean hasAccept = false;
+            for (int it : I) {
+                int x = g.trasPunto(it);
+                int p = g.produccionDe(it);
+                if (x >= 0 && "$".equals(nombre[x]) && g.puntoDe(it) + 1 == g.derecha(p).length && aumentada[p]) {
+                    hasAccept = true;
                 }
             }
+            if (hasAccept) {
+                if (fila[finCol] == tablaDensa.ERROR) orden[llenas[0]++] = finCol;
+                fila[finCol] = tablaDensa.ACEPTAR;
+            }
 
-            boolean hasAccept = I.stream().anyMatch(it ->
-                    "$".equals(norm(it.symbolAfterDot())) &&
-                    (it.dot + 1) == it.p.right.size() &&
-                    it.p.left.endsWith("'"));
-            if (hasAccept) ACTION.computeIfAbsent(i, unused -> new LinkedHashMap<>()).put("$", "acep");
-
-            for (itemLR0 it : I) {
-                boolean endOfRule = (it.symbolAfterDot() == null);
-                boolean epsReady  = isEpsilonProduction(it.p) && it.dot == 0;
-                if ((endOfRule || epsReady) && !it.p.left.endsWith("'")) {
-                    Integer k = ruleNum.get(it.p);
-                    if (k == null) continue;
-
-                    Set<String> followA = ff.follow.getOrDefault(it.p.left, Set.of());
-                    boolean acceptHere = hasAccept;
-                    for (String a : followA) {
-                        String aa = norm(a);
-                        if (!T.contains(aa)) continue;
-                        if ("$".equals(aa) && acceptHere) continue;
-                        ACTION.computeIfAbsent(i, unused -> new LinkedHashMap<>()).putIfAbsent(aa, "r"+k);
-                    }
+            for (int it : I) {
+                int p = g.produccionDe(it);
+                int[] rhs = g.derecha(p);
+                boolean endOfRule = (g.trasPunto(it) < 0);
+                boolean epsReady  = rhs.length == 1 && epsilon[rhs[0]] && g.puntoDe(it) == 0;
+                if ((endOfRule || epsReady) && !aumentada[p]) {
+                    int k = ruleNum[p];
+                    if (k == 0) continue;
+
+                    final boolean acceptHere = hasAccept;
+                    ff.forEachFollow(g.izquierda(p), a -> {
+                        if (!columnaT[a]) return;
+                        if ("$".equals(nombre[a]) && acceptHere) return;
+                        if (fila[colT[a]] == tablaDensa.ERROR) {
+                            fila[colT[a]] = tablaDensa.reducir(k);
+                            orden[llenas[0]++] = colT[a];
+                        }
+                    });
                 }
             }
-
-            for (String A : symbols) {
-                if (N.contains(A)) {
-                    Set<itemLR0> J = canonicalLR.goTo(gAug, I, A);
-                    Integer j = idx.get(J);
-                    if (j == null) for (int k = 0; k < C.size(); k++) if (C.get(k).equals(J)) { j = k; break; }
-                    if (j != null) GOTO.computeIfAbsent(i, unused -> new LinkedHashMap<>()).put(A, j);
+            ordenAccion[i] = Arrays.copyOf(orden, llenas[0]);
+
+            int llenasIrA = 0;
+            for (int k = 0; k < symbols.length; k++) {
+                int A = symbols[k];
+                if (columnaN[A] && !epsilon[A]) {
+                    if (GOTO[i][colN[A]] == tablaDensa.SIN_IR_A) orden[llenasIrA++] = colN[A];
+                    GOTO[i][colN[A]] = destinos[k];
                 }
             }
+            ordenIrA[i] = Arrays.copyOf(orden, llenasIrA);
         }
 
-        return new Result(C.size(), T, N, ACTION, GOTO);
+        return new Result(estados, T, N, new tablaDensa(ACTION, GOTO, ordenAccion, ordenIrA, T, N, rules), rules);
     }
 
-    private static final class FirstFollowFF {
-        final Map<String, Set<String>> first = new LinkedHashMap<>();
-        final Map<String, Set<String>> follow = new LinkedHashMap<>();
+    /** Reglas numeradas de la gramática aumentada: regla k = get(k - 1), sin las de S'. */
+    public static List<production> rules(grammar gAug) {
+        List<production> rules = new ArrayList<>();
+        for (String A : gAug.byLeft.keySet()) {
+            if (A.endsWith("'")) continue;
+            rules.addAll(gAug.byLeft.get(A));
+        }
+        return Collections.unmodifiableList(rules);
     }
 
-    private static FirstFollowFF computeFirstFollowFromAugmented(grammar g) {
-        FirstFollowFF ff = new FirstFollowFF();
-
-        List<String> N = g.N.stream().map(lr0Table::norm).collect(Collectors.toList());
-        List<String> T = g.T.stream().map(lr0Table::norm).collect(Collectors.toList());
-        final String EPS = "ε";
-
-        for (String A : N) { ff.first.put(A, new LinkedHashSet<>()); ff.follow.put(A, new LinkedHashSet<>()); }
-
-        boolean changed;
-        do {
-            changed = false;
-            for (Map.Entry<String, List<production>> e : g.byLeft.entrySet()) {
-                String A = norm(e.getKey());
-                for (production p : e.getValue()) {
-                    List<String> alpha = p.right.stream().map(lr0Table::norm).collect(Collectors.toList());
-                    Set<String> before = new LinkedHashSet<>(ff.first.get(A));
-                    Set<String> add = firstOfSeq(alpha, ff.first, T, EPS);
-                    if (add.remove(EPS)) { ff.first.get(A).addAll(add); ff.first.get(A).add(EPS); }
-                    else ff.first.get(A).addAll(add);
-                    if (ff.first.get(A).size() != before.size()) changed = true;
-                }
-            }
-        } while (changed);
-
-        do {
-            changed = false;
-            for (Map.Entry<String, List<production>> e : g.byLeft.entrySet()) {
-                String A = norm(e.getKey());
-                for (production p : e.getValue()) {
-                    List<String> beta = p.right.stream().map(lr0Table::norm).collect(Collectors.toList());
-                    int m = beta.size();
-                    for (int i = 0; i < m; i++) {
-                        String B = beta.get(i);
-                        if (!N.contains(B)) continue;
-
-                        if (i + 1 < m) {
-                            String next = beta.get(i + 1);
-                            if (!N.contains(next) && !isEpsilonSymbol(next)) {
-                                if (ff.follow.get(B).add(next)) changed = true;
-                            }
-                        }
-
-                        List<String> tail = beta.subList(i + 1, m);
-                        Set<String> firstTail = firstOfSeq(tail, ff.first, T, EPS);
-                        Set<String> add1 = new LinkedHashSet<>(firstTail);
-                        add1.remove(EPS);
-                        if (!add1.isEmpty()) {
-                            if (ff.follow.get(B).addAll(add1)) changed = true;
-                        }
-                        if (tail.isEmpty() || firstTail.contains(EPS)) {
-                            if (ff.follow.get(B).addAll(ff.follow.get(A))) changed = true;
-                        }
-                    }
-                }
-            }
-        } while (changed);
-
-        return ff;
-    }
-    private static Set<String> firstOfSeq(List<String> seq,
-                                          Map<String, Set<String>> firstNT,
-                                          List<String> terminals,
-                                          String EPS) {
-        Set<String> out = new LinkedHashSet<>();
-        if (seq.isEmpty()) { out.add(EPS); return out; }
-
-        for (String s : seq) {
-            if (s == null || s.isEmpty()) { out.add(EPS); break; }
-            if (isEpsilonSymbol(s)) { out.add(EPS); continue; }
-            if (firstNT.containsKey(s)) {
-                Set<String> fs = firstNT.getOrDefault(s, Set.of());
-                out.addAll(fs.stream().filter(x -> !x.equals(EPS)).collect(Collectors.toList()));
-                if (!fs.contains(EPS)) return out;
-            } else {
-                out.add(s);
-                return out;
-            }
+    /**
+     * FIRST/FOLLOW de la gramática aumentada: ε (o "epsilon") es vacío y hace anulable lo
+     * que lo contiene (ver {@link FirstFollowOrden#EPSILON_ANULA}), los no terminales
+     * aportan sus conjuntos y cualquier otro símbolo cuenta como terminal. Sin "$" inicial:
+     * lo aporta S' → S $. Las pasadas recorren byLeft tal cual, repetidas incluidas, para
+     * que SIGUIENTES quede en el orden de siempre.
+     */
+    private static FirstFollowOrden computeFirstFollowFromAugmented(CompiledGrammar g, Set<String> Nset) {
+        int nSim = g.numSimbolos();
+        int[] tipo = new int[nSim];
+        boolean[] esN = new boolean[nSim];
+        for (int x = 0; x < nSim; x++) {
+            String s = norm(g.nombre(x));
+            esN[x] = Nset.contains(s);
+            if (isEpsilonSymbol(s)) tipo[x] = FirstFollowOrden.EPSILON_ANULA;
+            else tipo[x] = esN[x] ? FirstFollowOrden.NO_TERMINAL : FirstFollowOrden.TERMINAL;
+        }
+        List<production> todas = new ArrayList<>();
+        for (List<production> ps : g.fuente.byLeft.values()) todas.addAll(ps);
+        int[] izquierda = new int[todas.size()];
+        int[][] derecha = new int[todas.size()][];
+        for (int k = 0; k < izquierda.length; k++) {
+            int p = g.id(todas.get(k));
+            izquierda[k] = g.izquierda(p);
+            derecha[k] = g.derecha(p);
         }
-        out.add(EPS);
-        return out;
+        return FirstFollowOrden.calcular(tipo, esN, izquierda, derecha, -1, -1);
     }
 }
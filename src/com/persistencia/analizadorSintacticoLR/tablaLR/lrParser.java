@@ -3,117 +3,112 @@ package com.persistencia.analizadorSintacticoLR.tablaLR;
 import com.persistencia.analizadorSintacticoLR.coleccionCanonica.grammar;
 import com.persistencia.analizadorSintacticoLR.coleccionCanonica.production;
 import java.util.*;
+import java.util.function.Consumer;
 import javax.swing.table.DefaultTableModel;
 
 public final class lrParser {
 
     private lrParser() {}
 
-    public static List<String> lex(String program, List<String> grammarTerminals) {
-        Set<String> T = new LinkedHashSet<>(grammarTerminals);
-        T.remove("$");
-
-        List<String> keywords = new ArrayList<>();
-        for (String t : T) {
-            if (t.matches("[A-Za-z_][A-Za-z_0-9]*") && !t.equals("id")) keywords.add(t);
-        }
-
-        Set<String> twoChar = new LinkedHashSet<>();
-        if (T.contains(":=")) twoChar.add(":=");
-
-        Set<String> oneChar = new LinkedHashSet<>();
-        for (String s : new String[]{"+","*","(",")",";",",",":","="}) {
-            if (T.contains(s)) oneChar.add(s);
-        }
-
-        List<String> out = new ArrayList<>();
-        int i = 0, n = program.length();
-        while (i < n) {
-            char ch = program.charAt(i);
-            if (Character.isWhitespace(ch)) { i++; continue; }
-
-            if (i + 1 < n) {
-                String pair = program.substring(i, i+2);
-                if (twoChar.contains(pair)) { out.add(pair); i += 2; continue; }
-            }
-
-            if (Character.isLetter(ch) || ch == '_') {
-                int j = i + 1;
-                while (j < n && (Character.isLetterOrDigit(program.charAt(j)) || program.charAt(j) == '_')) j++;
-                String lex = program.substring(i, j);
-                if (keywords.contains(lex)) out.add(lex);
-                else if (T.contains("id")) out.add("id");
-                else out.add(lex);
-                i = j; continue;
-            }
-            if (Character.isDigit(ch)) {
-                int j = i + 1;
-                while (j < n && Character.isDigit(program.charAt(j))) j++;
-                if (T.contains("num")) out.add("num");
-                else if (T.contains("id")) out.add("id");
-                else out.add(program.substring(i, j));
-                i = j; continue;
-            }
+    /** Terminales del programa según la gramática de la tabla (usa el escáner ya compilado). */
+    public static List<String> lex(String program, lr0Table.Result table) {
+        return table.escaner().escanear(program);
+    }
 
-            String s = String.valueOf(ch);
-            if (oneChar.contains(s)) { out.add(s); i++; continue; }
-            if (T.contains(s))       { out.add(s); i++; continue; }
+    /** Igual que {@link #lex(String, lr0Table.Result)}, pero uno a uno (termina con "$"). */
+    public static Iterator<String> lexFlujo(CharSequence program, lr0Table.Result table) {
+        return table.escaner().flujo(program);
+    }
 
-            i++;
-        }
+    /** Compila un escáner para estos terminales en cada llamada; preferir la variante con la tabla. */
+    public static List<String> lex(String program, List<String> grammarTerminals) {
+        return escanerTerminales.compilar(grammarTerminals).escanear(program);
+    }
 
-        out.add("$");
-        return out;
+    public static Iterator<String> lexFlujo(CharSequence program, List<String> grammarTerminals) {
+        return escanerTerminales.compilar(grammarTerminals).flujo(program);
     }
 
     /** Ejecuta el análisis LR y devuelve un modelo de tabla (PILA, ENTRADA, ACCIÓN). */
     public static DefaultTableModel runLRParse(String grammarPath, lr0Table.Result table, List<String> tokens) throws Exception {
-        grammar gAug = grammar.parseAugmentedGrammar(grammarPath);
-        List<production> rules = new ArrayList<>();
-        for (String A : gAug.byLeft.keySet()) {
-            if (A.endsWith("'")) continue;
-            rules.addAll(gAug.byLeft.get(A));
-        }
+        DefaultTableModel model = nuevoModelo();
+        runLRParse(grammarPath, table, tokens.iterator(), tokens, model::addRow);
+        return model;
+    }
 
+    /**
+     * Tokens en flujo: se consumen uno a uno y la columna ENTRADA muestra solo el símbolo
+     * de preanálisis. El modelo igual guarda todos los pasos, así que la memoria crece con
+     * la entrada; para no guardarlos, usar la variante con un consumidor de pasos.
+     */
+    public static DefaultTableModel runLRParse(String grammarPath, lr0Table.Result table, Iterator<String> tokens) throws Exception {
+        DefaultTableModel model = nuevoModelo();
+        runLRParse(grammarPath, table, tokens, null, model::addRow);
+        return model;
+    }
+
+    /**
+     * Análisis en flujo de punta a punta: cada paso {PILA, ENTRADA, ACCIÓN} se entrega a
+     * pasos y no se guarda. La memoria depende de la altura de la pila, no de la entrada.
+     */
+    public static void runLRParse(String grammarPath, lr0Table.Result table, Iterator<String> tokens,
+                                  Consumer<Object[]> pasos) throws Exception {
+        runLRParse(grammarPath, table, tokens, null, pasos);
+    }
+
+    private static DefaultTableModel nuevoModelo() {
         String[] cols = {"PILA", "ENTRADA", "ACCIÓN"};
-        DefaultTableModel model = new DefaultTableModel(cols, 0) {
+        return new DefaultTableModel(cols, 0) {
             @Override public boolean isCellEditable(int r,int c){ return false; }
         };
+    }
 
+    private static void runLRParse(String grammarPath, lr0Table.Result table, Iterator<String> tokens,
+                                   List<String> todos, Consumer<Object[]> pasos) throws Exception {
+        List<production> rules = table.rules;
+        if (rules == null) {
+            // Tabla armada a mano: las reglas se numeran desde el archivo
+            rules = lr0Table.rules(grammar.parseAugmentedGrammar(grammarPath));
+        }
+
+        tablaDensa t = table.densa;
         Deque<Object> stack = new ArrayDeque<>();
         stack.push(0);
 
         int ptr = 0;
+        String a = tokens.hasNext() ? tokens.next() : "$";
+        int col = t.terminal(a);
         while (true) {
             int state = (int) stack.peek();
-            String a = (ptr < tokens.size()) ? tokens.get(ptr) : "$";
 
-            String act = table.action.getOrDefault(state, Map.of()).get(a);
+            int act = t.accion(state, col);
 
             String pilaStr = renderStack(stack);
-            String entradaStr = String.join(" ", tokens.subList(ptr, tokens.size()));
+            String entradaStr = (todos != null)
+                    ? String.join(" ", todos.subList(Math.min(ptr, todos.size()), todos.size()))
+                    : (tokens.hasNext() ? a + " ..." : a);
 
-            if (act == null || act.isBlank()) {
+            if (act == tablaDensa.ERROR) {
                 Set<String> esperados = new LinkedHashSet<>();
-                table.action.getOrDefault(state, Map.of()).forEach((t,v)->{
-                    if (v != null && !v.isBlank()) esperados.add(t);
-                });
+                for (int c : t.columnasAccion(state)) esperados.add(table.terminals.get(c));
                 String msg = "Error sintáctico: se esperaba " + (esperados.isEmpty()? "otro token" : String.join(" o ", esperados));
-                model.addRow(new Object[]{pilaStr, entradaStr, msg});
+                pasos.accept(new Object[]{pilaStr, entradaStr, msg});
                 break;
             }
 
-            if (act.startsWith("d")) {
-                int j = Integer.parseInt(act.substring(1));
-                model.addRow(new Object[]{pilaStr, entradaStr, "d" + j});
+            if (tablaDensa.esDesplazar(act)) {
+                int j = tablaDensa.estado(act);
+                pasos.accept(new Object[]{pilaStr, entradaStr, "d" + j});
                 stack.push(a);
                 stack.push(j);
                 ptr++;
+                a = tokens.hasNext() ? tokens.next() : "$";
+                col = t.terminal(a);
                 continue;
             }
 
-            if (act.startsWith("r")) {
-                int k = Integer.parseInt(act.substring(1));
+            if (tablaDensa.esReducir(act)) {
+                int k = tablaDensa.regla(act);
                 production p = rules.get(k - 1);
 
                 int betaLen = effectiveBetaLength(p.right);
@@ -121,12 +116,12 @@ public final class lrParser {
 
                 int j = (int) stack.peek();
                 stack.push(p.left); 
-                Integer s = table.gotoTable.getOrDefault(j, Map.of()).get(p.left);
-                if (s == null)
+                int s = t.irADespuesDe(j, k, p.left);
+                if (s == tablaDensa.SIN_IR_A)
                     throw new IllegalStateException("Ir_a["+j+","+p.left+"] no definido en reducción r"+k);
                 stack.push(s);
 
-                model.addRow(new Object[]{
+                pasos.accept(new Object[]{
                         pilaStr,
                         entradaStr,
                         "r"+k+"  "+p.left+"→"+String.join(" ", p.right)
@@ -134,16 +129,9 @@ public final class lrParser {
                 continue;
             }
 
-            if (act.equalsIgnoreCase("acep") || act.equalsIgnoreCase("aceptar")) {
-                model.addRow(new Object[]{pilaStr, entradaStr, "Aceptar"});
-                break;
-            }
-
-            model.addRow(new Object[]{pilaStr, entradaStr, act});
+            pasos.accept(new Object[]{pilaStr, entradaStr, "Aceptar"});
             break;
         }
-
-        return model;
     }
 
     private static int effectiveBetaLength(List<String> right) {
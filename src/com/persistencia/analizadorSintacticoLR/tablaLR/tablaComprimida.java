@@ -0,0 +1,259 @@
+package com.persistencia.analizadorSintacticoLR.tablaLR;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forma comprimida de una {@link tablaDensa}, para tener muchas tablas grandes cargadas a
+ * la vez. Las consultas siguen siendo O(1):
+ *
+ *  - Filas repetidas: los estados con la misma fila ACCION comparten una sola copia.
+ *  - Reducción por defecto (opcional): la reducción más frecuente de cada fila se saca de
+ *    la fila y se devuelve en cualquier casilla vacía, como hace yacc. El lenguaje
+ *    aceptado no cambia; un error se detecta unas reducciones más tarde.
+ *  - Vector peine: las filas se superponen en un solo arreglo, cada una desplazada por su
+ *    base, y un arreglo de control guarda de qué fila es cada casilla.
+ *
+ * Ir_a se comprime igual por columnas (no terminales), con el destino más frecuente de
+ * cada columna por defecto: después de una reducción Ir_a siempre está definido, así que
+ * el valor de las casillas vacías no se consulta nunca.
+ */
+public final class tablaComprimida {
+
+    private final int numEstados;
+    private final int numTerminales;
+    private final int numNoTerminales;
+    private final boolean reduccionesPorDefecto;
+
+    // ACCION: estado → fila única → base en el peine
+    private final int[] fila;
+    private final int[] base;
+    private final int[] porDefecto;
+    private final int[] valor;
+    private final int[] control;
+
+    // Ir_a: no terminal → base en su peine (indexado por estado)
+    private final int[] baseIrA;
+    private final int[] porDefectoIrA;
+    private final int[] valorIrA;
+    private final int[] controlIrA;
+
+    private tablaComprimida(tablaDensa t, boolean reduccionesPorDefecto) {
+        this.numEstados = t.numEstados();
+        this.numTerminales = t.filaAccion(0).length;
+        this.numNoTerminales = t.filaIrA(0).length;
+        this.reduccionesPorDefecto = reduccionesPorDefecto;
+
+        // 1) Filas ACCION únicas
+        fila = new int[numEstados];
+        List<int[]> unicas = new ArrayList<>();
+        Map<filaClave, Integer> vistas = new HashMap<>();
+        for (int i = 0; i < numEstados; i++) {
+            filaClave clave = new filaClave(t.filaAccion(i));
+            Integer r = vistas.get(clave);
+            if (r == null) {
+                r = unicas.size();
+                vistas.put(clave, r);
+                unicas.add(clave.valores);
+            }
+            fila[i] = r;
+        }
+
+        // 2) Reducción por defecto de cada fila única
+        porDefecto = new int[unicas.size()];
+        List<int[]> columnas = new ArrayList<>();     // columnas que quedan en el peine
+        for (int r = 0; r < unicas.size(); r++) {
+            int[] f = unicas.get(r);
+            porDefecto[r] = reduccionesPorDefecto ? masFrecuente(f, true) : tablaDensa.ERROR;
+            columnas.add(noPorDefecto(f, porDefecto[r], tablaDensa.ERROR));
+        }
+
+        // 3) Peine de ACCION
+        base = new int[unicas.size()];
+        peine p = new peine();
+        for (int r : porDensidad(columnas)) base[r] = p.ubicar(r, columnas.get(r), unicas.get(r));
+        valor = p.valores(numTerminales);
+        control = p.controles(numTerminales);
+
+        // 4) Ir_a por columnas
+        baseIrA = new int[numNoTerminales];
+        porDefectoIrA = new int[numNoTerminales];
+        List<int[]> columna = new ArrayList<>(), filasIrA = new ArrayList<>();
+        for (int A = 0; A < numNoTerminales; A++) {
+            int[] c = new int[numEstados];
+            for (int i = 0; i < numEstados; i++) c[i] = t.irA(i, A);
+            porDefectoIrA[A] = masFrecuente(c, false);
+            columna.add(c);
+            filasIrA.add(noPorDefecto(c, porDefectoIrA[A], tablaDensa.SIN_IR_A));
+        }
+        peine q = new peine();
+        for (int A : porDensidad(filasIrA)) baseIrA[A] = q.ubicar(A, filasIrA.get(A), columna.get(A));
+        valorIrA = q.valores(numEstados);
+        controlIrA = q.controles(numEstados);
+    }
+
+    public static tablaComprimida comprimir(tablaDensa t, boolean reduccionesPorDefecto) {
+        return new tablaComprimida(t, reduccionesPorDefecto);
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * ACCION[estado, terminal] con la codificación de {@link tablaDensa}. Con reducciones
+     * por defecto, una casilla de error puede devolver la reducción de la fila.
+     */
+    public int accion(int estado, int terminal) {
+        if (terminal < 0) return tablaDensa.ERROR;
+        int r = fila[estado];
+        int i = base[r] + terminal;
+        return (control[i] == r) ? valor[i] : porDefecto[r];
+    }
+
+    /** Ir_a[estado, noTerminal]; solo es exacto en las casillas definidas. */
+    public int irA(int estado, int noTerminal) {
+        if (noTerminal < 0) return tablaDensa.SIN_IR_A;
+        int i = baseIrA[noTerminal] + estado;
+        return (controlIrA[i] == noTerminal) ? valorIrA[i] : porDefectoIrA[noTerminal];
+    }
+
+    // ==================== TAMAÑOS ====================
+
+    public int filasUnicas() {
+        return porDefecto.length;
+    }
+
+    /** Enteros de la tabla densa (ACCION + Ir_a). */
+    public long enterosDensos() {
+        return (long) numEstados * (numTerminales + numNoTerminales);
+    }
+
+    /** Enteros de todos los arreglos de esta forma. */
+    public long enterosComprimidos() {
+        return (long) fila.length + base.length + porDefecto.length + valor.length + control.length
+                + baseIrA.length + porDefectoIrA.length + valorIrA.length + controlIrA.length;
+    }
+
+    /** enterosComprimidos / enterosDensos. */
+    public double proporcion() {
+        long densos = enterosDensos();
+        return (densos == 0) ? 1.0 : (double) enterosComprimidos() / densos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("tablaComprimida [estados=%d, filas únicas=%d, peine ACCION=%d, peine Ir_a=%d, "
+                        + "reducciones por defecto=%s, enteros %d → %d (%.1f%%)]",
+                numEstados, filasUnicas(), valor.length, valorIrA.length, reduccionesPorDefecto ? "sí" : "no",
+                enterosDensos(), enterosComprimidos(), 100 * proporcion());
+    }
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    /** Valor más frecuente de la fila (sin contar vacías); reducciones = solo acciones de reducir. */
+    private static int masFrecuente(int[] f, boolean reducciones) {
+        Map<Integer, Integer> cuenta = new HashMap<>();
+        int mejor = reducciones ? tablaDensa.ERROR : tablaDensa.SIN_IR_A, veces = 0;
+        for (int v : f) {
+            boolean candidato = reducciones ? tablaDensa.esReducir(v) : v != tablaDensa.SIN_IR_A;
+            if (!candidato) continue;
+            int n = cuenta.merge(v, 1, Integer::sum);
+            if (n > veces) {
+                veces = n;
+                mejor = v;
+            }
+        }
+        return mejor;
+    }
+
+    /** Columnas de f que hay que guardar: las que no son vacías ni el valor por defecto. */
+    private static int[] noPorDefecto(int[] f, int porDefecto, int vacia) {
+        int[] c = new int[f.length];
+        int n = 0;
+        for (int k = 0; k < f.length; k++) {
+            // Las vacías no se guardan: devuelven el valor por defecto (o vacío si no hay)
+            if (f[k] != porDefecto && f[k] != vacia) c[n++] = k;
+        }
+        return Arrays.copyOf(c, n);
+    }
+
+    /** Índices ordenados de la fila con más casillas a la de menos (las grandes primero encajan mejor). */
+    private static int[] porDensidad(List<int[]> columnas) {
+        Integer[] orden = new Integer[columnas.size()];
+        for (int r = 0; r < orden.length; r++) orden[r] = r;
+        Arrays.sort(orden, (a, b) -> Integer.compare(columnas.get(b).length, columnas.get(a).length));
+        int[] out = new int[orden.length];
+        for (int r = 0; r < orden.length; r++) out[r] = orden[r];
+        return out;
+    }
+
+    /** Vector peine en construcción: primer desplazamiento donde las casillas de la fila están libres. */
+    private static final class peine {
+        int[] valor = new int[64];
+        int[] control = new int[64];
+        int largo = 0;
+
+        peine() {
+            Arrays.fill(control, -1);
+        }
+
+        int ubicar(int r, int[] columnas, int[] f) {
+            if (columnas.length == 0) return 0;
+            int b = 0;
+            while (!libre(b, columnas)) b++;
+            for (int k : columnas) {
+                asegurar(b + k + 1);
+                valor[b + k] = f[k];
+                control[b + k] = r;
+            }
+            largo = Math.max(largo, b + columnas[columnas.length - 1] + 1);
+            return b;
+        }
+
+        private boolean libre(int b, int[] columnas) {
+            for (int k : columnas) {
+                if (b + k < control.length && control[b + k] != -1) return false;
+            }
+            return true;
+        }
+
+        private void asegurar(int n) {
+            if (n <= control.length) return;
+            int nuevo = Math.max(n, control.length * 2);
+            valor = Arrays.copyOf(valor, nuevo);
+            int viejo = control.length;
+            control = Arrays.copyOf(control, nuevo);
+            Arrays.fill(control, viejo, nuevo, -1);
+        }
+
+        /** Arreglo final con margen para que base + columna nunca se salga. */
+        int[] valores(int ancho) {
+            return Arrays.copyOf(valor, largo + ancho);
+        }
+
+        int[] controles(int ancho) {
+            int[] c = Arrays.copyOf(control, largo + ancho);
+            Arrays.fill(c, Math.min(largo, control.length), c.length, -1);
+            return c;
+        }
+    }
+
+    /** Fila ACCION como clave de HashMap. */
+    private static final class filaClave {
+        final int[] valores;
+        final int hash;
+
+        filaClave(int[] valores) {
+            this.valores = valores;
+            this.hash = Arrays.hashCode(valores);
+        }
+
+        @Override public boolean equals(Object o) {
+            return o instanceof filaClave && Arrays.equals(valores, ((filaClave) o).valores);
+        }
+
+        @Override public int hashCode() { return hash; }
+    }
+}
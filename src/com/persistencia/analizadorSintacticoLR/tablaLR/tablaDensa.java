@@ -0,0 +1,232 @@
+package com.persistencia.analizadorSintacticoLR.tablaLR;
+
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.production;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tablas ACCION / Ir_a en arreglos densos: una fila int[] por estado, indexada por la
+ * columna del terminal (orden de {@link lr0Table.Result#terminals}) o del no terminal
+ * (orden de {@link lr0Table.Result#nonTerminals}). Cada paso del análisis es una carga
+ * de arreglo en lugar de dos búsquedas en mapas y un parseInt.
+ *
+ * Codificación de ACCION: 0 es error, j + 1 desplaza al estado j, -k reduce por la
+ * regla k y {@link #ACEPTAR} acepta. En Ir_a, -1 es "sin entrada".
+ *
+ * Aparte se guarda, por estado, el orden en que se llenaron las casillas (desplazamientos,
+ * aceptar y luego reducciones según SIGUIENTES). No cambia el análisis: es el orden en que
+ * se muestran las filas y se listan los "se esperaba".
+ *
+ * Los arreglos son los internos: no deben modificarse.
+ */
+public final class tablaDensa {
+
+    public static final int ERROR = 0;
+    public static final int ACEPTAR = Integer.MIN_VALUE;
+    public static final int SIN_IR_A = -1;
+
+    private final int[][] accion;
+    private final int[][] irA;
+    private final Map<String, Integer> columnaTerminal = new HashMap<>();
+    private final Map<String, Integer> columnaNoTerminal = new HashMap<>();
+    private final int[][] ordenAccion;       // por estado: columnas con entrada en orden de llenado; null = orden de columnas
+    private final int[][] ordenIrA;
+    private final int[] izquierdaRegla;      // columna Ir_a del lado izquierdo de la regla k; null sin reglas
+
+    tablaDensa(int[][] accion, int[][] irA, List<String> terminals, List<String> nonTerminals, List<production> rules) {
+        this(accion, irA, null, null, terminals, nonTerminals, rules);
+    }
+
+    tablaDensa(int[][] accion, int[][] irA, int[][] ordenAccion, int[][] ordenIrA,
+               List<String> terminals, List<String> nonTerminals, List<production> rules) {
+        this.accion = accion;
+        this.irA = irA;
+        this.ordenAccion = ordenAccion;
+        this.ordenIrA = ordenIrA;
+        for (int c = 0; c < terminals.size(); c++) columnaTerminal.putIfAbsent(terminals.get(c), c);
+        for (int c = 0; c < nonTerminals.size(); c++) columnaNoTerminal.putIfAbsent(nonTerminals.get(c), c);
+        if (rules != null) {
+            izquierdaRegla = new int[rules.size() + 1];
+            for (int k = 1; k <= rules.size(); k++) izquierdaRegla[k] = noTerminal(rules.get(k - 1).left);
+        } else {
+            izquierdaRegla = null;
+        }
+    }
+
+    // ==================== CODIFICACIÓN ====================
+
+    public static int desplazar(int estado) {
+        return estado + 1;
+    }
+
+    public static int reducir(int regla) {
+        return -regla;
+    }
+
+    public static boolean esDesplazar(int accion) {
+        return accion > 0;
+    }
+
+    public static boolean esReducir(int accion) {
+        return accion < 0 && accion != ACEPTAR;
+    }
+
+    /** Estado destino de un desplazamiento. */
+    public static int estado(int accion) {
+        return accion - 1;
+    }
+
+    /** Número de regla de una reducción. */
+    public static int regla(int accion) {
+        return -accion;
+    }
+
+    /** La acción como en las tablas de texto: "d5", "r3", "acep", o null si es error. */
+    public static String comoTexto(int accion) {
+        if (accion == ERROR) return null;
+        if (accion == ACEPTAR) return "acep";
+        return esDesplazar(accion) ? "d" + estado(accion) : "r" + regla(accion);
+    }
+
+    /** Inverso de {@link #comoTexto}; cualquier otro texto cuenta como error. */
+    public static int desdeTexto(String accion) {
+        if (accion == null) return ERROR;
+        String a = accion.trim();
+        if (a.equalsIgnoreCase("acep") || a.equalsIgnoreCase("aceptar")) return ACEPTAR;
+        try {
+            if (a.startsWith("d")) return desplazar(Integer.parseInt(a.substring(1)));
+            if (a.startsWith("r")) return reducir(Integer.parseInt(a.substring(1)));
+        } catch (NumberFormatException e) {
+            return ERROR;
+        }
+        return ERROR;
+    }
+
+    // ==================== CONSULTAS ====================
+
+    public int numEstados() {
+        return accion.length;
+    }
+
+    /** Columna del terminal, o -1 si la tabla no lo tiene. */
+    public int terminal(String nombre) {
+        Integer c = columnaTerminal.get(nombre);
+        return (c == null) ? -1 : c;
+    }
+
+    /** Columna del no terminal, o -1 si la tabla no lo tiene. */
+    public int noTerminal(String nombre) {
+        Integer c = columnaNoTerminal.get(nombre);
+        return (c == null) ? -1 : c;
+    }
+
+    /** ACCION[estado, terminal]; una columna -1 (símbolo desconocido) es error. */
+    public int accion(int estado, int terminal) {
+        return (terminal < 0) ? ERROR : accion[estado][terminal];
+    }
+
+    /** Ir_a[estado, noTerminal] o {@link #SIN_IR_A}. */
+    public int irA(int estado, int noTerminal) {
+        return (noTerminal < 0) ? SIN_IR_A : irA[estado][noTerminal];
+    }
+
+    /** Ir_a tras reducir por la regla k: la columna de su lado izquierdo ya está resuelta. */
+    public int irADespuesDe(int estado, int regla, String izquierda) {
+        return irA(estado, (izquierdaRegla != null) ? izquierdaRegla[regla] : noTerminal(izquierda));
+    }
+
+    public int[] filaAccion(int estado) {
+        return accion[estado];
+    }
+
+    public int[] filaIrA(int estado) {
+        return irA[estado];
+    }
+
+    /** Columnas de ACCION con entrada en el estado, en el orden en que se llenaron. */
+    public int[] columnasAccion(int estado) {
+        return (ordenAccion != null) ? ordenAccion[estado] : columnasConEntrada(accion[estado], ERROR);
+    }
+
+    /** Columnas de Ir_a con entrada en el estado, en el orden en que se llenaron. */
+    public int[] columnasIrA(int estado) {
+        return (ordenIrA != null) ? ordenIrA[estado] : columnasConEntrada(irA[estado], SIN_IR_A);
+    }
+
+    private static int[] columnasConEntrada(int[] fila, int vacia) {
+        int n = 0;
+        for (int v : fila) if (v != vacia) n++;
+        int[] out = new int[n];
+        n = 0;
+        for (int c = 0; c < fila.length; c++) if (fila[c] != vacia) out[n++] = c;
+        return out;
+    }
+
+    // ==================== VISTA DE MAPAS ====================
+
+    /** ACCION como mapas de texto (solo estados con alguna entrada), en orden de llenado. */
+    Map<Integer, Map<String, String>> comoMapaAccion(List<String> terminals) {
+        Map<Integer, Map<String, String>> m = new LinkedHashMap<>();
+        for (int i = 0; i < accion.length; i++) {
+            for (int c : columnasAccion(i)) {
+                m.computeIfAbsent(i, unused -> new LinkedHashMap<>()).put(terminals.get(c), comoTexto(accion[i][c]));
+            }
+        }
+        return m;
+    }
+
+    Map<Integer, Map<String, Integer>> comoMapaIrA(List<String> nonTerminals) {
+        Map<Integer, Map<String, Integer>> m = new LinkedHashMap<>();
+        for (int i = 0; i < irA.length; i++) {
+            for (int c : columnasIrA(i)) {
+                m.computeIfAbsent(i, unused -> new LinkedHashMap<>()).put(nonTerminals.get(c), irA[i][c]);
+            }
+        }
+        return m;
+    }
+
+    /** Tabla densa a partir de los mapas (tablas armadas a mano). */
+    static tablaDensa desdeMapas(int states, List<String> terminals, List<String> nonTerminals,
+                                 Map<Integer, Map<String, String>> action,
+                                 Map<Integer, Map<String, Integer>> gotoTable,
+                                 List<production> rules) {
+        int filas = states;
+        for (Integer i : action.keySet()) filas = Math.max(filas, i + 1);
+        for (Integer i : gotoTable.keySet()) filas = Math.max(filas, i + 1);
+        int[][] accion = new int[filas][terminals.size()];
+        int[][] irA = new int[filas][nonTerminals.size()];
+        for (int[] fila : irA) Arrays.fill(fila, SIN_IR_A);
+        int[][] ordenAccion = new int[filas][0], ordenIrA = new int[filas][0];
+        tablaDensa t = new tablaDensa(accion, irA, ordenAccion, ordenIrA, terminals, nonTerminals, rules);
+        // El orden de las filas es el de los mapas
+        action.forEach((i, fila) -> fila.forEach((a, v) -> {
+            int c = t.terminal(a);
+            if (c < 0) return;
+            if (accion[i][c] == ERROR) ordenAccion[i] = agregar(ordenAccion[i], c);
+            accion[i][c] = desdeTexto(v);
+            if (accion[i][c] == ERROR) ordenAccion[i] = quitar(ordenAccion[i], c);
+        }));
+        gotoTable.forEach((i, fila) -> fila.forEach((A, j) -> {
+            int c = t.noTerminal(A);
+            if (c < 0 || j == null) return;
+            if (irA[i][c] == SIN_IR_A) ordenIrA[i] = agregar(ordenIrA[i], c);
+            irA[i][c] = j;
+            if (j == SIN_IR_A) ordenIrA[i] = quitar(ordenIrA[i], c);
+        }));
+        return t;
+    }
+
+    private static int[] agregar(int[] orden, int c) {
+        int[] out = Arrays.copyOf(orden, orden.length + 1);
+        out[orden.length] = c;
+        return out;
+    }
+
+    private static int[] quitar(int[] orden, int c) {
+        return Arrays.stream(orden).filter(x -> x != c).toArray();
+    }
+}
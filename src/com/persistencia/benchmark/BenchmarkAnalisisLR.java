@@ -0,0 +1,165 @@
+package com.persistencia.benchmark;
+
+import com.persistencia.analizadorSemantico.AnalizadorSemanticoLRFinal;
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.production;
+import com.persistencia.analizadorSintacticoLR.tablaLR.generadorAscensoRecursivo;
+import com.persistencia.analizadorSintacticoLR.tablaLR.generadorParser;
+import com.persistencia.analizadorSintacticoLR.tablaLR.lr0Table;
+import com.persistencia.analizadorSintacticoLR.tablaLR.lrParser;
+import com.persistencia.analizadorSintacticoLR.tablaLR.tablaDensa;
+import com.persistencia.traza.Traza;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Análisis sintáctico con la gramática del subconjunto de Java: el ciclo sobre la tabla
+ * densa contra los analizadores generados (tablas static final y ascenso recursivo), y
+ * lrParser.runLRParse como referencia. Los generados se compilan en una carpeta temporal
+ * con el compilador del JDK. Ejecutar con:
+ *   java -cp "bin;lib/*" com.persistencia.benchmark.BenchmarkAnalisisLR
+ */
+public class BenchmarkAnalisisLR {
+
+    private static final String GRAMATICA = "pruebas/Semantico/final/gramatica.txt";
+    private static final String[] PROGRAMAS = {
+        "pruebas/Semantico/final/programaFinal.txt",
+        "pruebas/Semantico/final/programaFinal2.txt"
+    };
+    private static final int VUELTAS = 500;      // análisis de cada programa por medición
+
+    public static void main(String[] args) throws Exception {
+        Traza.configurar(Traza.NINGUNO, Traza.Nivel.ERROR);
+        lr0Table.Result r = lr0Table.buildFromFile(GRAMATICA);
+        tablaDensa t = r.densa;
+
+        List<List<String>> tokens = new ArrayList<>();
+        List<int[]> entradas = new ArrayList<>();
+        long total = 0;
+        for (String p : PROGRAMAS) {
+            List<String> nombres = new ArrayList<>();
+            for (AnalizadorSemanticoLRFinal.TokenSemantico tk : new AnalizadorSemanticoLRFinal().analizar(p).getTokens()) {
+                nombres.add(tk.getToken());
+            }
+            int[] entrada = new int[nombres.size()];
+            for (int i = 0; i < entrada.length; i++) entrada[i] = t.terminal(nombres.get(i));
+            tokens.add(nombres);
+            entradas.add(entrada);
+            total += entrada.length;
+            System.out.println(p + ": " + entrada.length + " tokens");
+        }
+
+        // Ciclo sobre tablaDensa, con los datos por regla resueltos como en la clase generada
+        int[] largo = new int[r.rules.size() + 1], izquierda = new int[r.rules.size() + 1];
+        for (int k = 1; k <= r.rules.size(); k++) {
+            production p = r.rules.get(k - 1);
+            largo[k] = (p.right.size() == 1 && (p.right.get(0).trim().equals("ε")
+                    || p.right.get(0).trim().equalsIgnoreCase("epsilon"))) ? 0 : p.right.size();
+            izquierda[k] = t.noTerminal(p.left);
+        }
+        int fin = t.terminal("$");
+
+        Path dir = Files.createTempDirectory("analizadoresLR");
+        MethodHandle tablas = compilar(dir, generadorParser.generar(r, "", "ParserTablas"), "ParserTablas");
+        MethodHandle ascenso = compilar(dir, generadorAscensoRecursivo.generar(r, "", "ParserAscenso"), "ParserAscenso");
+
+        for (int[] e : entradas) {
+            int d = reconocer(t, e, largo, izquierda, fin);
+            String res = "densa=" + d;
+            if (tablas != null) res += " tablas=" + analizar(tablas, e) + " ascenso=" + analizar(ascenso, e);
+            System.out.println("  resultado (-1 = acepta): " + res);
+        }
+
+        long elementos = total * VUELTAS;
+        BenchmarkLexico.medir("lrParser.runLRParse (50 vueltas)", total * 50, () -> {
+            long suma = 0;
+            for (int v = 0; v < 50; v++) {
+                for (List<String> e : tokens) suma += lrParser.runLRParse(GRAMATICA, r, e).getRowCount();
+            }
+            return suma;
+        });
+        BenchmarkLexico.medir("tablaDensa", elementos, () -> {
+            long suma = 0;
+            for (int v = 0; v < VUELTAS; v++) {
+                for (int[] e : entradas) suma += reconocer(t, e, largo, izquierda, fin);
+            }
+            return suma;
+        });
+        if (tablas == null) {
+            System.out.println("  Sin compilador de Java (¿JRE?): no se miden los analizadores generados");
+            return;
+        }
+        BenchmarkLexico.medir("generado: tablas static final", elementos, () -> {
+            long suma = 0;
+            for (int v = 0; v < VUELTAS; v++) {
+                for (int[] e : entradas) suma += analizar(tablas, e);
+            }
+            return suma;
+        });
+        BenchmarkLexico.medir("generado: ascenso recursivo", elementos, () -> {
+            long suma = 0;
+            for (int v = 0; v < VUELTAS; v++) {
+                for (int[] e : entradas) suma += analizar(ascenso, e);
+            }
+            return suma;
+        });
+    }
+
+    /** Solo reconocimiento sobre la tabla densa: -1 si acepta o la posición del error. */
+    private static int reconocer(tablaDensa t, int[] entrada, int[] largo, int[] izquierda, int fin) {
+        int[] pila = new int[64];
+        int tope = 0, pos = 0;
+        while (true) {
+            int a = (pos < entrada.length) ? entrada[pos] : fin;
+            int act = t.accion(pila[tope], a);
+            if (tablaDensa.esDesplazar(act)) {
+                if (++tope == pila.length) pila = java.util.Arrays.copyOf(pila, tope * 2);
+                pila[tope] = tablaDensa.estado(act);
+                pos++;
+            } else if (act == tablaDensa.ACEPTAR) {
+                return -1;
+            } else if (act != tablaDensa.ERROR) {
+                int k = tablaDensa.regla(act);
+                tope -= largo[k];
+                int s = t.irA(pila[tope], izquierda[k]);
+                if (++tope == pila.length) pila = java.util.Arrays.copyOf(pila, tope * 2);
+                pila[tope] = s;
+            } else {
+                return pos;
+            }
+        }
+    }
+
+    /** analizar(int[]) de una clase generada; la llamada por MethodHandle cuesta lo mismo a ambas. */
+    private static int analizar(MethodHandle analizador, int[] entrada) {
+        try {
+            return (int) analizador.invokeExact(entrada);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Compila la clase generada y devuelve su analizar(int[]), o null sin compilador. */
+    private static MethodHandle compilar(Path dir, String fuente, String clase) throws Exception {
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        if (javac == null) return null;
+        Path archivo = dir.resolve(clase + ".java");
+        Files.writeString(archivo, fuente);
+        if (javac.run(null, null, null, "-encoding", "UTF-8", "-d", dir.toString(), archivo.toString()) != 0) {
+            throw new IllegalStateException("No compila " + archivo);
+        }
+        ClassLoader cargador = new URLClassLoader(new URL[]{ dir.toUri().toURL() }, BenchmarkAnalisisLR.class.getClassLoader());
+        return MethodHandles.publicLookup().findStatic(Class.forName(clase, true, cargador), "analizar",
+                MethodType.methodType(int.class, int[].class));
+    }
+}
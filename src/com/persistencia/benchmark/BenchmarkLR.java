@@ -0,0 +1,155 @@
+package com.persistencia.benchmark;
+
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.CompiledGrammar;
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.LR0Automaton;
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.grammar;
+import com.persistencia.analizadorSintacticoLR.tablaLR.lr0Table;
+import com.persistencia.analizadorSintacticoLR.tablaLR.tablaComprimida;
+import com.persistencia.analizadorSintacticoLR.tablaLR.tablaDensa;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Mediciones de la construcción LR(0) y de la compresión de tablas sobre gramáticas
+ * sintéticas de tamaño creciente (sin dependencias externas). Ejecutar con:
+ *   java -cp "bin;lib/*" com.persistencia.benchmark.BenchmarkLR
+ */
+public class BenchmarkLR {
+
+    private static final int[] TAMANIOS = {25, 50, 100, 200};
+    private static final String GRAMATICA = "pruebas/Semantico/final/gramatica.txt";
+
+    public static void main(String[] args) throws Exception {
+        List<String> nombres = new ArrayList<>();
+        List<grammar> gramaticas = new ArrayList<>();
+        nombres.add(GRAMATICA);
+        gramaticas.add(grammar.parseAugmentedGrammar(GRAMATICA));
+        for (int n : TAMANIOS) {
+            nombres.add("sintética n=" + n);
+            gramaticas.add(grammar.parseAugmentedGrammarText(generar(n)));
+        }
+
+        for (int i = 0; i < gramaticas.size(); i++) {
+            automata(nombres.get(i), CompiledGrammar.compilar(gramaticas.get(i)));
+        }
+        for (int i = 0; i < gramaticas.size(); i++) {
+            compresion(nombres.get(i), lr0Table.build(gramaticas.get(i)));
+        }
+    }
+
+    // ==================== AUTÓMATA ====================
+
+    /** Construcción secuencial contra la paralela con 1, 2, 4, ... hilos. */
+    private static void automata(String nombre, CompiledGrammar g) {
+        LR0Automaton secuencial = LR0Automaton.construir(g);
+        System.out.println(nombre + ": " + secuencial + " (" + g + ")");
+        BenchmarkLexico.medir("secuencial", secuencial.numEstados(),
+                () -> LR0Automaton.construir(g).numEstados());
+
+        int maxHilos = Runtime.getRuntime().availableProcessors();
+        for (int hilos = 1; ; hilos = Math.min(hilos * 2, maxHilos)) {
+            ForkJoinPool pool = new ForkJoinPool(hilos);
+            try {
+                boolean iguales = iguales(secuencial, LR0Automaton.construirParalelo(g, pool));
+                BenchmarkLexico.medir("paralelo " + hilos + " hilo(s)" + (iguales ? "" : " DISTINTO"),
+                        secuencial.numEstados(), () -> LR0Automaton.construirParalelo(g, pool).numEstados());
+            } finally {
+                pool.shutdown();
+            }
+            if (hilos == maxHilos) break;
+        }
+    }
+
+    /** Mismos estados, con los ítems en el mismo orden, y mismas transiciones. */
+    private static boolean iguales(LR0Automaton a, LR0Automaton b) {
+        if (a.numEstados() != b.numEstados()) return false;
+        for (int i = 0; i < a.numEstados(); i++) {
+            if (!Arrays.equals(a.items(i), b.items(i))
+                    || !Arrays.equals(a.simbolos(i), b.simbolos(i))
+                    || !Arrays.equals(a.destinos(i), b.destinos(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ==================== COMPRESIÓN ====================
+
+    /** Tamaño de la tabla comprimida, con y sin reducciones por defecto, y costo de consulta. */
+    private static void compresion(String nombre, lr0Table.Result r) {
+        tablaDensa densa = r.densa;
+        System.out.println(nombre + ": tabla de " + r.states + " estados x ("
+                + r.terminals.size() + " + " + r.nonTerminals.size() + ") columnas");
+        for (boolean porDefecto : new boolean[]{false, true}) {
+            tablaComprimida c = r.comprimir(porDefecto);
+            System.out.println("  " + c + (coincide(densa, c, porDefecto) ? "" : " DISTINTA"));
+        }
+
+        tablaComprimida c = r.comprimir(true);
+        long consultas = (long) r.states * (r.terminals.size() + r.nonTerminals.size());
+        BenchmarkLexico.medir("consultas densa", consultas, () -> {
+            long suma = 0;
+            for (int i = 0; i < r.states; i++) {
+                for (int a = 0; a < r.terminals.size(); a++) suma += densa.accion(i, a);
+                for (int A = 0; A < r.nonTerminals.size(); A++) suma += densa.irA(i, A);
+            }
+            return suma;
+        });
+        BenchmarkLexico.medir("consultas comprimida", consultas, () -> {
+            long suma = 0;
+            for (int i = 0; i < r.states; i++) {
+                for (int a = 0; a < r.terminals.size(); a++) suma += c.accion(i, a);
+                for (int A = 0; A < r.nonTerminals.size(); A++) suma += c.irA(i, A);
+            }
+            return suma;
+        });
+    }
+
+    /**
+     * Las casillas definidas coinciden; con reducciones por defecto un error solo puede
+     * volverse una reducción de la misma fila.
+     */
+    private static boolean coincide(tablaDensa d, tablaComprimida c, boolean porDefecto) {
+        for (int i = 0; i < d.numEstados(); i++) {
+            int[] fila = d.filaAccion(i);
+            for (int a = 0; a < fila.length; a++) {
+                int v = c.accion(i, a);
+                if (v == fila[a]) continue;
+                if (!porDefecto || fila[a] != tablaDensa.ERROR || !contiene(fila, v)) return false;
+            }
+            int[] irA = d.filaIrA(i);
+            for (int A = 0; A < irA.length; A++) {
+                if (irA[A] != tablaDensa.SIN_IR_A && c.irA(i, A) != irA[A]) return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contiene(int[] fila, int v) {
+        for (int x : fila) if (x == v && tablaDensa.esReducir(v)) return true;
+        return false;
+    }
+
+    // ==================== GRAMÁTICAS ====================
+
+    /**
+     * Gramática aumentada con n niveles de expresiones encadenadas en ciclo. Cada A_i
+     * predice A_(i+1), así que las cerraduras crecen con n y también el número de estados.
+     */
+    static String generar(int n) {
+        StringBuilder N = new StringBuilder(), T = new StringBuilder(), P = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            N.append(i > 0 ? " " : "").append("A").append(i).append(" B").append(i);
+            T.append(i > 0 ? " " : "").append("p").append(i).append(" q").append(i)
+             .append(" l").append(i).append(" r").append(i).append(" x").append(i).append(" c").append(i);
+            int sig = (i + 1) % n, salto = (i * 3 + 1) % n;
+            P.append("A").append(i).append(" -> A").append(i).append(" p").append(i).append(" B").append(i)
+             .append(" | B").append(i).append(" | A").append(sig).append(" q").append(i).append('\n');
+            P.append("B").append(i).append(" -> l").append(i).append(" A").append(sig).append(" r").append(i)
+             .append(" | x").append(i).append(" | B").append(i).append(" c").append(i).append(" A").append(salto).append('\n');
+        }
+        return N + "\n" + T + "\nS' -> A0 $\n" + P;
+    }
+}
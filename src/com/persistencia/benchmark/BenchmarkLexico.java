@@ -0,0 +1,217 @@
+package com.persistencia.benchmark;
+
+import com.persistencia.analizadorLexico.TokenBuffer;
+import com.persistencia.analizadorLexico.lexer;
+import com.persistencia.analizadorLexico.palabrasReservadas;
+import com.persistencia.analizadorLexico.tipoToken;
+import com.persistencia.analizadorLexico.token;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Mediciones del analizador léxico (sin dependencias externas).
+ * Ejecutar con:
+ *   java -cp "bin;lib/*" com.persistencia.benchmark.BenchmarkLexico
+ */
+public class BenchmarkLexico {
+
+    private static final int CALENTAMIENTO = 5;
+    private static final int REPETICIONES = 10;
+    private static final String PROGRAMA = "pruebas/Semantico/final/programaFinal2.txt";
+
+    public static void main(String[] args) throws Exception {
+        identificadores();
+        motores();
+        escalado();
+        simbolos();
+    }
+
+    // ==================== PALABRAS RESERVADAS ====================
+
+    /** Clasificación de identificadores: valueOf + excepción contra el trie. */
+    private static void identificadores() {
+        String[] palabras = generarIdentificadores(200_000);
+
+        System.out.println("Clasificación de " + palabras.length + " identificadores");
+        medir("valueOf + excepción", palabras.length, () -> {
+            int reservadas = 0;
+            for (String p : palabras) {
+                if (clasificarConExcepcion(p) != tipoToken.IDENTIFICADOR) reservadas++;
+            }
+            return reservadas;
+        });
+        medir("trie de palabras reservadas", palabras.length, () -> {
+            int reservadas = 0;
+            for (String p : palabras) {
+                if (palabrasReservadas.buscar(p, 0, p.length()) != null) reservadas++;
+            }
+            return reservadas;
+        });
+
+        String fuente = String.join(" ", palabras);
+        medir("lexer completo", palabras.length, () -> new lexer(fuente).scanTokens().size());
+    }
+
+    /** Estrategia anterior de lexer.identificador(). */
+    private static tipoToken clasificarConExcepcion(String texto) {
+        try {
+            return tipoToken.valueOf(texto.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return tipoToken.IDENTIFICADOR;
+        }
+    }
+
+    private static String[] generarIdentificadores(int n) {
+        String[] base = {"contador", "total", "i", "j", "suma_parcial", "resultado", "valor2", "x", "temp", "nombre"};
+        String[] reservadas = {"int", "if", "while", "return", "public", "static", "void", "class"};
+        List<String> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            // Aproximadamente una palabra reservada por cada cuatro identificadores
+            out.add(i % 5 == 0 ? reservadas[i % reservadas.length] : base[i % base.length] + (i % 7));
+        }
+        return out.toArray(new String[0]);
+    }
+
+    // ==================== MOTORES ====================
+
+    /** Escáner escrito a mano contra el autómata por tablas sobre programaFinal2. */
+    private static void motores() throws Exception {
+        String programa = Files.readString(Path.of(PROGRAMA));
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 2_000_000) sb.append(programa).append('\n');
+        String fuente = sb.toString();
+
+        // Entradas que terminan en espacios: el EOF debe quedar en la misma columna
+        String[] bordes = { "( ,= \t ", "x  ", "a\t\t", "1 \r\n  ", " ", "", "\"s\" \n\t " };
+        for (String b : bordes) {
+            if (!motoresIguales(b)) System.out.println("  motores DISTINTOS en " + b.replace("\n", "\\n").replace("\t", "\\t"));
+        }
+
+        System.out.println(PROGRAMA + " repetido: " + fuente.length() + " caracteres, "
+                + new lexer(fuente).scanTokens().size() + " tokens, salidas "
+                + (motoresIguales(fuente) && motoresIguales(programa + "  \t ") ? "idénticas" : "DISTINTAS"));
+        medir("motor MANUAL (lista)", fuente.length(),
+                () -> new lexer(fuente, lexer.Motor.MANUAL).scanTokens().size());
+        medir("motor TABLA (lista)", fuente.length(),
+                () -> new lexer(fuente, lexer.Motor.TABLA).scanTokens().size());
+        medir("motor MANUAL (TokenBuffer)", fuente.length(),
+                () -> new lexer(fuente, lexer.Motor.MANUAL).scanTokenBuffer().size());
+        medir("motor TABLA (TokenBuffer)", fuente.length(),
+                () -> new lexer(fuente, lexer.Motor.TABLA).scanTokenBuffer().size());
+    }
+
+    /** Mismos tokens (tipo, lexema, línea y columna) con ambos motores, en lista y en TokenBuffer. */
+    private static boolean motoresIguales(String fuente) {
+        List<token> manual = new lexer(fuente, lexer.Motor.MANUAL).scanTokens();
+        List<token> tabla = new lexer(fuente, lexer.Motor.TABLA).scanTokens();
+        TokenBuffer bufManual = new lexer(fuente, lexer.Motor.MANUAL).scanTokenBuffer();
+        TokenBuffer bufTabla = new lexer(fuente, lexer.Motor.TABLA).scanTokenBuffer();
+        if (manual.size() != tabla.size() || bufManual.size() != bufTabla.size()) return false;
+        for (int i = 0; i < manual.size(); i++) {
+            if (!manual.get(i).toString().equals(tabla.get(i).toString())) return false;
+        }
+        for (int i = 0; i < bufManual.size(); i++) {
+            if (!bufManual.get(i).toString().equals(bufTabla.get(i).toString())) return false;
+        }
+        return true;
+    }
+
+    // ==================== TABLA DE SÍMBOLOS ====================
+
+    /** Identificadores únicos: HashSet de lexemas contra BitSet por id de la tabla de nombres. */
+    private static void simbolos() {
+        String[] palabras = generarIdentificadores(500_000);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < palabras.length; i++) {
+            sb.append(palabras[i]).append(i % 3 == 0 ? " = " : " + ").append(i % 10 == 9 ? ";\n" : "");
+        }
+        String fuente = sb.toString();
+        TokenBuffer tokens = new lexer(fuente).scanTokenBuffer();
+
+        System.out.println("Tabla de símbolos sobre " + tokens.size() + " tokens ("
+                + tokens.nombres().size() + " identificadores distintos)");
+        medir("HashSet<String> de lexemas", tokens.size(), () -> {
+            Set<String> unicos = new HashSet<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                if (tokens.tipo(i) == tipoToken.IDENTIFICADOR) {
+                    // como antes: un String nuevo por token, hasheado y comparado
+                    unicos.add(fuente.substring(tokens.inicio(i), tokens.inicio(i) + tokens.longitud(i)));
+                }
+            }
+            return unicos.size();
+        });
+        medir("BitSet por id de símbolo", tokens.size(), () -> {
+            BitSet unicos = new BitSet(tokens.nombres().size());
+            int n = 0;
+            for (int i = 0; i < tokens.size(); i++) {
+                if (tokens.tipo(i) == tipoToken.IDENTIFICADOR && !unicos.get(tokens.simbolo(i))) {
+                    unicos.set(tokens.simbolo(i));
+                    n++;
+                }
+            }
+            return n;
+        });
+    }
+
+    // ==================== PARALELO ====================
+
+    /** Lexado por tramos con 1, 2, 4, ... hilos sobre ~16 MB de programaFinal2. */
+    private static void escalado() throws Exception {
+        String programa = Files.readString(Path.of(PROGRAMA));
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 16_000_000) sb.append(programa).append('\n');
+        String fuente = sb.toString();
+
+        List<token> secuencial = new lexer(fuente).scanTokens();
+        System.out.println("Lexado paralelo de " + fuente.length() + " caracteres ("
+                + Runtime.getRuntime().availableProcessors() + " núcleos)");
+        medir("secuencial", fuente.length(), () -> new lexer(fuente).scanTokens().size());
+
+        int maxHilos = Runtime.getRuntime().availableProcessors();
+        for (int hilos = 1; ; hilos = Math.min(hilos * 2, maxHilos)) {
+            ForkJoinPool pool = new ForkJoinPool(hilos);
+            try {
+                List<token> paralelo = new lexer(fuente).scanTokensParalelo(pool);
+                boolean iguales = paralelo.size() == secuencial.size();
+                for (int i = 0; iguales && i < paralelo.size(); i++) {
+                    iguales = paralelo.get(i).toString().equals(secuencial.get(i).toString());
+                }
+                medir("paralelo " + hilos + " hilo(s)" + (iguales ? "" : " DISTINTO"), fuente.length(),
+                        () -> new lexer(fuente).scanTokensParalelo(pool).size());
+            } finally {
+                pool.shutdown();
+            }
+            if (hilos == maxHilos) break;
+        }
+    }
+
+    // ==================== UTILIDADES ====================
+
+    interface Tarea {
+        long ejecutar() throws Exception;
+    }
+
+    static void medir(String nombre, long elementos, Tarea tarea) {
+        try {
+            long control = 0;
+            for (int i = 0; i < CALENTAMIENTO; i++) control += tarea.ejecutar();
+            long mejor = Long.MAX_VALUE;
+            for (int i = 0; i < REPETICIONES; i++) {
+                long t0 = System.nanoTime();
+                control += tarea.ejecutar();
+                mejor = Math.min(mejor, System.nanoTime() - t0);
+            }
+            double ms = mejor / 1e6;
+            double porSegundo = elementos / (mejor / 1e9);
+            System.out.printf("  %-32s %10.3f ms  %,14.0f elem/s  (control %d)%n", nombre, ms, porSegundo, control);
+        } catch (Exception ex) {
+            System.out.println("  " + nombre + ": error " + ex.getMessage());
+        }
+    }
+}
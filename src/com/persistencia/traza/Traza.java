@@ -0,0 +1,153 @@
+package com.persistencia.traza;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Traza de los analizadores: niveles y un destino intercambiable (consola, ninguno,
+ * anillo en memoria o archivo). Reemplaza los System.out dispersos.
+ *
+ * Un mensaje que concatena se pasa como Supplier, para armarlo solo si el nivel está activo:
+ * <pre>
+ *   Traza.depuracion(() -> "valor " + x);
+ * </pre>
+ * {@link #activo} queda para bloques enteros (p. ej. un ciclo que vuelca la pila). Con el
+ * destino {@link #NINGUNO} no se concatena ni se escribe nada.
+ *
+ * Configuración inicial con -Dtraza.destino=consola|ninguno|anillo|archivo:ruta
+ * y -Dtraza.nivel=ERROR|INFO|DEPURACION (por defecto consola y DEPURACION, como antes).
+ */
+public final class Traza {
+
+    public enum Nivel { ERROR, INFO, DEPURACION }
+
+    /** Destino de los mensajes ya filtrados por nivel. */
+    public interface Destino {
+        void escribir(Nivel nivel, String mensaje);
+    }
+
+    /** Descarta todo; {@link #activo} devuelve false y no se construye ningún mensaje. */
+    public static final Destino NINGUNO = (nivel, mensaje) -> { };
+
+    /** ERROR a System.err y el resto a System.out, igual que los println originales. */
+    public static final Destino CONSOLA = (nivel, mensaje) -> {
+        if (nivel == Nivel.ERROR) System.err.println(mensaje);
+        else System.out.println(mensaje);
+    };
+
+    private static volatile Destino destino = CONSOLA;
+    private static volatile Nivel nivel = Nivel.DEPURACION;
+
+    static {
+        String d = System.getProperty("traza.destino");
+        if (d != null) {
+            if (d.equalsIgnoreCase("ninguno")) destino = NINGUNO;
+            else if (d.equalsIgnoreCase("anillo")) destino = new Anillo(1024);
+            else if (d.startsWith("archivo:")) destino = archivo(Path.of(d.substring("archivo:".length())));
+        }
+        String n = System.getProperty("traza.nivel");
+        if (n != null) nivel = Nivel.valueOf(n.toUpperCase());
+    }
+
+    private Traza() {}
+
+    public static void configurar(Destino nuevoDestino, Nivel nuevoNivel) {
+        destino = nuevoDestino;
+        nivel = nuevoNivel;
+    }
+
+    public static Destino destino() {
+        return destino;
+    }
+
+    public static boolean activo(Nivel n) {
+        return destino != NINGUNO && n.ordinal() <= nivel.ordinal();
+    }
+
+    public static void error(String mensaje) {
+        emitir(Nivel.ERROR, mensaje);
+    }
+
+    public static void info(String mensaje) {
+        emitir(Nivel.INFO, mensaje);
+    }
+
+    public static void depuracion(String mensaje) {
+        emitir(Nivel.DEPURACION, mensaje);
+    }
+
+    public static void info(Supplier<String> mensaje) {
+        if (activo(Nivel.INFO)) destino.escribir(Nivel.INFO, mensaje.get());
+    }
+
+    public static void depuracion(Supplier<String> mensaje) {
+        if (activo(Nivel.DEPURACION)) destino.escribir(Nivel.DEPURACION, mensaje.get());
+    }
+
+    private static void emitir(Nivel n, String mensaje) {
+        if (activo(n)) destino.escribir(n, mensaje);
+    }
+
+    // ==================== DESTINOS ====================
+
+    /** Guarda los últimos mensajes en memoria (para mostrarlos tras una corrida). */
+    public static final class Anillo implements Destino {
+        private final String[] mensajes;
+        private long escritos = 0;
+
+        public Anillo(int capacidad) {
+            mensajes = new String[capacidad];
+        }
+
+        @Override
+        public synchronized void escribir(Nivel nivel, String mensaje) {
+            mensajes[(int) (escritos++ % mensajes.length)] = mensaje;
+        }
+
+        /** Los mensajes retenidos, del más antiguo al más reciente. */
+        public synchronized List<String> contenido() {
+            int n = (int) Math.min(escritos, mensajes.length);
+            List<String> out = new ArrayList<>(n);
+            for (long i = escritos - n; i < escritos; i++) {
+                out.add(mensajes[(int) (i % mensajes.length)]);
+            }
+            return out;
+        }
+    }
+
+    /** Escribe en un archivo (con búfer); los errores se vuelcan de inmediato. */
+    public static Destino archivo(Path ruta) {
+        try {
+            BufferedWriter w = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    w.close();
+                } catch (IOException ignorada) {
+                    // el proceso ya está terminando
+                }
+            }));
+            return (nivel, mensaje) -> {
+                try {
+                    synchronized (w) {
+                        w.write(mensaje);
+                        w.newLine();
+                        if (nivel == Nivel.ERROR) w.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir la traza " + ruta, e);
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package com.presentacion.AnalizadorProyectoFinal;
 
+import com.persistencia.analizadorLexico.TokenBuffer;
 import com.persistencia.analizadorLexico.lexer;
-import com.persistencia.analizadorLexico.token;
 import com.persistencia.analizadorLexico.tipoToken;
+import com.persistencia.analizadorSemantico.CompiledLanguage;
 import com.persistencia.analizadorSintacticoLR.tablaLR.lr0Table;
 import com.persistencia.analizadorSintacticoLR.tablaLR.lrParser;
 import java.awt.*;
@@ -10,9 +11,8 @@ import java.awt.event.ActionEvent;
 import java.io.File;
 import java.nio.file.Files;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableModel;
@@ -155,25 +155,29 @@ public class AnalizadorProyectoFinalPanel extends JPanel {
 
             // 3. ANÁLISIS LÉXICO usando tu Lexer
             lexer analizadorLexico = new lexer(prog);
-            List<token> tokensLexicos = analizadorLexico.scanTokens();
+            TokenBuffer tokensLexicos = analizadorLexico.scanTokenBuffer();
             
             // Extraer errores léxicos
             List<Object[]> erroresLexicos = new ArrayList<>();
-            for (token t : tokensLexicos) {
-                if (t.tipo == tipoToken.DESCONOCIDO) {
-                    erroresLexicos.add(new Object[]{ t.linea, "Léxico", "Token desconocido: '" + t.lexema + "'" });
+            for (int i = 0; i < tokensLexicos.size(); i++) {
+                if (tokensLexicos.tipo(i) == tipoToken.DESCONOCIDO) {
+                    erroresLexicos.add(new Object[]{ tokensLexicos.linea(i), "Léxico", "Token desconocido: '" + tokensLexicos.lexema(i)
+                            + "' (columna " + tokensLexicos.columnaEnLinea(i) + ")" });
                 }
-                if (t.tipo == tipoToken.ERROR_DE_CADENA) {
-                    erroresLexicos.add(new Object[]{ t.linea, "Léxico", "Error de cadena: '" + t.lexema + "'" });
+                if (tokensLexicos.tipo(i) == tipoToken.ERROR_DE_CADENA) {
+                    erroresLexicos.add(new Object[]{ tokensLexicos.linea(i), "Léxico", "Error de cadena: '" + tokensLexicos.lexema(i)
+                            + "' (columna " + tokensLexicos.columnaEnLinea(i) + ")" });
                 }
             }
 
             // Preparar datos para la tabla de tokens
             List<Object[]> listaTokens = new ArrayList<>();
-            for (token t : tokensLexicos) {
-                if (t.tipo != tipoToken.EOF && t.tipo != tipoToken.DESCONOCIDO) {
+            for (int i = 0; i < tokensLexicos.size(); i++) {
+                tipoToken tipo = tokensLexicos.tipo(i);
+                if (tipo != tipoToken.EOF && tipo != tipoToken.DESCONOCIDO) {
+                    String lexema = tokensLexicos.lexema(i);
                     Object tokenMostrar;
-                    switch (t.tipo) {
+                    switch (tipo) {
                         case PUNTO:
                         case PUNTO_Y_COMA:
                         case COMA:
@@ -184,22 +188,26 @@ public class AnalizadorProyectoFinalPanel extends JPanel {
                         case PARENTESIS_DER:
                         case LLAVE_IZQ:
                         case LLAVE_DER:
-                            tokenMostrar = t.lexema;
+                            tokenMostrar = lexema;
                             break;
                         default:
-                            tokenMostrar = t.tipo;
+                            tokenMostrar = tipo;
                     }
-                    listaTokens.add(new Object[]{t.linea, t.lexema, tokenMostrar});
+                    listaTokens.add(new Object[]{tokensLexicos.linea(i), lexema, tokenMostrar});
                 }
             }
 
             // Tabla de símbolos
             List<Object[]> listaSimbolos = new ArrayList<>();
-            Set<String> idsUnicos = new HashSet<>();
+            BitSet idsUnicos = new BitSet(tokensLexicos.nombres().size());
             int idCounter = 1;
-            for (token t : tokensLexicos) {
-                if (t.tipo == tipoToken.IDENTIFICADOR && idsUnicos.add(t.lexema)) {
-                    listaSimbolos.add(new Object[]{ idCounter++, t.lexema });
+            for (int i = 0; i < tokensLexicos.size(); i++) {
+                if (tokensLexicos.tipo(i) == tipoToken.IDENTIFICADOR) {
+                    int simbolo = tokensLexicos.simbolo(i);
+                    if (!idsUnicos.get(simbolo)) {
+                        idsUnicos.set(simbolo);
+                        listaSimbolos.add(new Object[]{ idCounter++, tokensLexicos.lexema(i) });
+                    }
                 }
             }
 
@@ -212,7 +220,7 @@ public class AnalizadorProyectoFinalPanel extends JPanel {
             ventanaTokens.setVisible(true);
 
             // 4. Construir tabla LR desde la gramática fija
-            lr0Table.Result tablaLR = lr0Table.buildFromFile(GRAMMAR_PATH);
+            lr0Table.Result tablaLR = CompiledLanguage.obtener(GRAMMAR_PATH).tabla;
 
             // VENTANA 2: Mostrar Tabla de Análisis Sintáctico LR
             VentanaTablaLR ventanaTablaLR = new VentanaTablaLR(tablaLR);
@@ -268,11 +276,11 @@ public class AnalizadorProyectoFinalPanel extends JPanel {
         }
     }
 
-    private List<String> convertirTokensParaParser(List<token> tokens) {
+    private List<String> convertirTokensParaParser(TokenBuffer tokens) {
         List<String> resultado = new ArrayList<>();
         
-        for (token t : tokens) {
-            String tokenStr = mapearTokenATerminal(t);
+        for (int i = 0; i < tokens.size(); i++) {
+            String tokenStr = mapearTokenATerminal(tokens.tipo(i));
             if (tokenStr != null && !tokenStr.isEmpty()) {
                 resultado.add(tokenStr);
             }
@@ -282,8 +290,8 @@ public class AnalizadorProyectoFinalPanel extends JPanel {
         return resultado;
     }
 
-    private String mapearTokenATerminal(token t) {
-    switch (t.tipo) {
+    private String mapearTokenATerminal(tipoToken tipo) {
+    switch (tipo) {
         // ============================================
         // PALABRAS RESERVADAS DE JAVA
         // ============================================
@@ -437,7 +445,7 @@ public class AnalizadorProyectoFinalPanel extends JPanel {
 
         default:
             // Fallback: devolver el nombre del enum
-            return t.tipo.name();
+            return tipo.name();
     }
 }
 
@@ -45,13 +45,13 @@ public class VentanaTablaLR extends JFrame {
             // Llenar ACCIÓN
             int col = 1;
             for (String t : tabla.terminals) {
-                String accion = tabla.action.getOrDefault(i, Collections.emptyMap()).get(t);
+                String accion = tabla.action().getOrDefault(i, Collections.emptyMap()).get(t);
                 data[i][col++] = (accion != null) ? accion : "";
             }
             
             // Llenar IR_A
             for (String nt : tabla.nonTerminals) {
-                Integer estado = tabla.gotoTable.getOrDefault(i, Collections.emptyMap()).get(nt);
+                Integer estado = tabla.gotoTable().getOrDefault(i, Collections.emptyMap()).get(nt);
                 data[i][col++] = (estado != null) ? estado.toString() : "";
             }
         }
@@ -1,5 +1,6 @@
 package com.presentacion.analizadorFlexCup;
 
+import com.persistencia.traza.Traza;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -37,7 +38,7 @@ public class JFlexCupController {
         try {
             Files.createDirectories(Paths.get(RUTA_SALIDA));
         } catch (IOException e) {
-            System.err.println("Error al crear directorios: " + e.getMessage());
+            Traza.error("Error al crear directorios: " + e.getMessage());
         }
     }
 
@@ -533,7 +534,8 @@ public class JFlexCupController {
 
     private void log(String mensaje) {
         logCompilacion.append(mensaje);
-        System.out.print(mensaje);
+        // Los mensajes ya traen su salto de línea; la traza agrega el suyo
+        Traza.info(mensaje.endsWith("\n") ? mensaje.substring(0, mensaje.length() - 1) : mensaje);
     }
 
     public String getLogCompilacion() {
@@ -1,21 +1,26 @@
 package com.presentacion.analizadorLexico;
 
-import com.persistencia.analizadorLexico.lexer;
+import com.persistencia.analizadorLexico.indiceLineas;
+import com.persistencia.analizadorLexico.lexerIncremental;
 import com.persistencia.analizadorLexico.tipoToken;
 import com.persistencia.analizadorLexico.token;
 import java.awt.*;
 import java.io.*;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.text.BadLocationException;
 
 public class AnalizadorLexicoPanel extends JPanel {
 
     private JTextField filePathField;
     private JTextArea textArea;
+    // Tokens del editor, actualizados con cada edición del documento
+    private lexerIncremental lexerEditor = new lexerIncremental("");
 
     public AnalizadorLexicoPanel() {
         setLayout(new BorderLayout(10, 10));
@@ -60,14 +65,15 @@ public class AnalizadorLexicoPanel extends JPanel {
         }
 
         try {
-            lexer lexer = new lexer(code);
-            List<token> tokens = lexer.scanTokens();
+            List<token> tokens = lexerEditor.tokens();
 
             List<Object[]> listaTokens = new ArrayList<>();
             for (token t : tokens) {
-                if (t.tipo != tipoToken.IDENTIFICADOR && t.tipo != tipoToken.DESCONOCIDO) {
+                tipoToken tipo = t.tipo;
+                if (tipo != tipoToken.IDENTIFICADOR && tipo != tipoToken.DESCONOCIDO) {
+                    String lexema = t.lexema;
                     Object tokenMostrar;
-                    switch (t.tipo) {
+                    switch (tipo) {
                         case PUNTO:
                         case PUNTO_Y_COMA:
                         case COMA:
@@ -78,34 +84,44 @@ public class AnalizadorLexicoPanel extends JPanel {
                         case PARENTESIS_DER:
                         case LLAVE_IZQ:
                         case LLAVE_DER:
-                            tokenMostrar = t.lexema;
+                            tokenMostrar = lexema;
                             break;
                         default:
-                            tokenMostrar = t.tipo;
+                            tokenMostrar = tipo;
                     }
-                    listaTokens.add(new Object[]{t.linea, t.lexema, tokenMostrar});
+                    listaTokens.add(new Object[]{t.linea, lexema, tokenMostrar});
                 }
             }
 
             // --- Tabla de símbolos ---
             List<Object[]> listaSimbolos = new ArrayList<>();
-            Set<String> idsUnicos = new HashSet<>();
+            BitSet idsUnicos = new BitSet(lexerEditor.nombres().size());
             int idCounter = 1;
             for (token t : tokens) {
-                if (t.tipo == tipoToken.IDENTIFICADOR && idsUnicos.add(t.lexema)) {
+                if (t.tipo == tipoToken.IDENTIFICADOR && !idsUnicos.get(t.simbolo)) {
+                    idsUnicos.set(t.simbolo);
                     listaSimbolos.add(new Object[]{ idCounter++, t.lexema });
                 }
             }
 
             // --- Tabla de errores ---
             List<Object[]> listaErrores = new ArrayList<>();
+            indiceLineas lineas = null;   // solo se arma si hay errores que ubicar
             for (token t : tokens) {
+                if (t.tipo != tipoToken.DESCONOCIDO && t.tipo != tipoToken.ERROR_DE_CADENA) {
+                    continue;
+                }
+                if (lineas == null) {
+                    lineas = indiceLineas.de(lexerEditor.texto());
+                }
                 if (t.tipo == tipoToken.DESCONOCIDO) {
-                    listaErrores.add(new Object[]{ t.linea, "Token desconocido: " + t.lexema });
+                    listaErrores.add(new Object[]{ t.linea, "Token desconocido: " + t.lexema
+                            + " (columna " + lineas.columna(t.columna) + ")" });
                 }
 
                if (t.tipo == tipoToken.ERROR_DE_CADENA) {
-                    listaErrores.add(new Object[]{ t.linea, "error de cadena: " + t.lexema });
+                    listaErrores.add(new Object[]{ t.linea, "error de cadena: " + t.lexema
+                            + " (columna " + lineas.columna(t.columna) + ")" });
                 }
     
             }
@@ -147,6 +163,27 @@ public class AnalizadorLexicoPanel extends JPanel {
         textArea = new JTextArea();
         textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13));
         textArea.setEditable(true);
+        textArea.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                try {
+                    String insertado = e.getDocument().getText(e.getOffset(), e.getLength());
+                    lexerEditor.editar(e.getOffset(), 0, insertado);
+                } catch (BadLocationException ex) {
+                    lexerEditor = new lexerIncremental(textArea.getText());
+                }
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                lexerEditor.editar(e.getOffset(), e.getLength(), "");
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // solo cambios de atributos, el texto no cambia
+            }
+        });
         add(new JScrollPane(textArea), BorderLayout.CENTER);
     }
 
@@ -20,6 +20,7 @@ import com.persistencia.analizadorSemantico.AnalizadorSemanticoLRFinal.Resultado
 import com.persistencia.analizadorSemantico.AnalizadorSemanticoLRFinal.TablaSimbolos;
 import com.persistencia.analizadorSemantico.PasoAnalisis;
 import com.persistencia.analizadorSintacticoLR.tablaLR.lr0Table;
+import com.persistencia.traza.Traza;
 
 public class analizadorSemanticoFinalPanel extends JPanel {
 
@@ -276,7 +277,7 @@ public class analizadorSemanticoFinalPanel extends JPanel {
 
                     } catch (Exception ex) {
                         // ✅ Esto solo ocurriría si hay un error MUY grave
-                        System.err.println("⚠️ Excepción al obtener resultado: " + ex.getMessage());
+                        Traza.error("⚠️ Excepción al obtener resultado: " + ex.getMessage());
                         ex.printStackTrace();
 
                         String mensaje = "Error al procesar el análisis:\n" + ex.getMessage();
@@ -342,12 +343,12 @@ public class analizadorSemanticoFinalPanel extends JPanel {
 
             // 2. VENTANA: Tabla de Análisis Sintáctico LR
             if (resultado.getTablaLR() != null) {
-                System.out.println("✅ Mostrando tabla LR...");
+                Traza.info("✅ Mostrando tabla LR...");
                 VentanaTablaLR ventanaTablaLR = new VentanaTablaLR(resultado.getTablaLR());
                 ventanaTablaLR.setLocation(100, 100);
                 ventanaTablaLR.setVisible(true);
             } else {
-                System.out.println("⚠️ Tabla LR no disponible");
+                Traza.info("⚠️ Tabla LR no disponible");
             }
 
             // 3. VENTANA: Tira de Tokens
@@ -357,7 +358,7 @@ public class analizadorSemanticoFinalPanel extends JPanel {
                 ventanaTokens.setLocation(150, 150);
                 ventanaTokens.setVisible(true);
             } else {
-                System.out.println("⚠️ Tokens no disponibles");
+                Traza.info("⚠️ Tokens no disponibles");
             }
 
             // 4. VENTANA: Tabla de Símbolos
@@ -371,7 +372,7 @@ public class analizadorSemanticoFinalPanel extends JPanel {
                 ventanaSimbolos.setLocation(200, 200);
                 ventanaSimbolos.setVisible(true);
             } else {
-                System.out.println("⚠️ Tabla de símbolos vacía");
+                Traza.info("⚠️ Tabla de símbolos vacía");
             }
 
             // 5. VENTANA: Tabla de Errores (SIEMPRE mostrar)
@@ -399,7 +400,7 @@ public class analizadorSemanticoFinalPanel extends JPanel {
                 ventanaCorrida.setLocation(300, 300);
                 ventanaCorrida.setVisible(true);
             } else {
-                System.out.println("⚠️ Corrida del análisis no disponible");
+                Traza.info("⚠️ Corrida del análisis no disponible");
             }
 
             // 7. VENTANA: Código C++ Generado (si existe)
@@ -409,7 +410,7 @@ public class analizadorSemanticoFinalPanel extends JPanel {
                 ventanaCpp.setVisible(true);
                 btnGuardarCpp.setEnabled(true);
             } else {
-                System.out.println("⚠️ Código C++ no generado (análisis incompleto)");
+                Traza.info("⚠️ Código C++ no generado (análisis incompleto)");
                 btnGuardarCpp.setEnabled(false);
             }
 
@@ -420,7 +421,7 @@ public class analizadorSemanticoFinalPanel extends JPanel {
             ventanaChecklist.setVisible(true);
 
         } catch (Exception ex) {
-            System.err.println("⚠️ Error al mostrar ventanas: " + ex.getMessage());
+            Traza.error("⚠️ Error al mostrar ventanas: " + ex.getMessage());
             ex.printStackTrace();
             // No detener el proceso, algunas ventanas ya se mostraron
         }
@@ -927,17 +928,17 @@ public class analizadorSemanticoFinalPanel extends JPanel {
          * Construir datos de la tabla LR
          */
         private Object[][] construirDatosTablaLR(lr0Table.Result tablaLR) {
-            int numEstados = tablaLR.action.size();
+            int numEstados = tablaLR.action().size();
 
             // Obtener todos los símbolos (terminales y no terminales)
             Set<String> terminales = new TreeSet<>();
             Set<String> noTerminales = new TreeSet<>();
 
-            for (Map<String, String> actionMap : tablaLR.action.values()) {
+            for (Map<String, String> actionMap : tablaLR.action().values()) {
                 terminales.addAll(actionMap.keySet());
             }
 
-            for (Map<String, Integer> gotoMap : tablaLR.gotoTable.values()) {
+            for (Map<String, Integer> gotoMap : tablaLR.gotoTable().values()) {
                 noTerminales.addAll(gotoMap.keySet());
             }
 
@@ -951,13 +952,13 @@ public class analizadorSemanticoFinalPanel extends JPanel {
                 datos[estado][col++] = estado;
 
                 // Columnas ACTION (terminales)
-                Map<String, String> actionMap = tablaLR.action.getOrDefault(estado, new HashMap<>());
+                Map<String, String> actionMap = tablaLR.action().getOrDefault(estado, new HashMap<>());
                 for (String terminal : terminales) {
                     datos[estado][col++] = actionMap.getOrDefault(terminal, "");
                 }
 
                 // Columnas GOTO (no terminales)
-                Map<String, Integer> gotoMap = tablaLR.gotoTable.getOrDefault(estado, new HashMap<>());
+                Map<String, Integer> gotoMap = tablaLR.gotoTable().getOrDefault(estado, new HashMap<>());
                 for (String noTerminal : noTerminales) {
                     Integer gotoEstado = gotoMap.get(noTerminal);
                     datos[estado][col++] = (gotoEstado != null) ? gotoEstado.toString() : "";
@@ -974,11 +975,11 @@ public class analizadorSemanticoFinalPanel extends JPanel {
             Set<String> terminales = new TreeSet<>();
             Set<String> noTerminales = new TreeSet<>();
 
-            for (Map<String, String> actionMap : tablaLR.action.values()) {
+            for (Map<String, String> actionMap : tablaLR.action().values()) {
                 terminales.addAll(actionMap.keySet());
             }
 
-            for (Map<String, Integer> gotoMap : tablaLR.gotoTable.values()) {
+            for (Map<String, Integer> gotoMap : tablaLR.gotoTable().values()) {
                 noTerminales.addAll(gotoMap.keySet());
             }
 
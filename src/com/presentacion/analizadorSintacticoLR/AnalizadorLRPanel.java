@@ -1,5 +1,6 @@
 package com.presentacion.analizadorSintacticoLR;
 
+import com.persistencia.analizadorSemantico.CompiledLanguage;
 import com.persistencia.analizadorSintacticoLR.tablaLR.lr0Table;
 import com.persistencia.analizadorSintacticoLR.tablaLR.lrParser;
 import java.awt.*;
@@ -132,7 +133,7 @@ public class AnalizadorLRPanel extends JPanel {
                 grammarPath = tempG.toAbsolutePath().toString();
             }
 
-            lr0Table.Result table = lr0Table.buildFromFile(grammarPath);
+            lr0Table.Result table = CompiledLanguage.obtener(grammarPath).tabla;
 
             String prog;
             if (programFile != null) {
@@ -142,7 +143,7 @@ public class AnalizadorLRPanel extends JPanel {
                 if (prog == null) prog = "";
             }
 
-            List<String> tokens = lrParser.lex(prog, table.terminals);
+            List<String> tokens = lrParser.lex(prog, table);
             var model = lrParser.runLRParse(grammarPath, table, tokens);
 
             ResultadoAnalisisLRFrame frame = new ResultadoAnalisisLRFrame(model);
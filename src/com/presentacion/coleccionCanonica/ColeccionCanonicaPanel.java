@@ -1,18 +1,26 @@
 package com.presentacion.coleccionCanonica;
 
+import com.persistencia.analizadorSemantico.CompiledLanguage;
+import com.persistencia.analizadorSintacticoLR.coleccionCanonica.LR0Automaton;
 import com.persistencia.analizadorSintacticoLR.coleccionCanonica.canonicalLR;
 import com.persistencia.analizadorSintacticoLR.coleccionCanonica.grammar;
-import com.persistencia.analizadorSintacticoLR.coleccionCanonica.itemLR0;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.io.File;
-import java.util.List;
-import java.util.Set;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;    
 
 public class ColeccionCanonicaPanel extends JPanel {
 
+    // Estados por página: solo se formatean los de la página visible
+    private static final int ESTADOS_POR_PAGINA = 25;
+
     private final JTextField txtPath = new JTextField();
     private final JButton btnOpen = new JButton("Abrir");
     private final JButton btnAnalyze = new JButton("Analizar");
@@ -21,7 +29,14 @@ public class ColeccionCanonicaPanel extends JPanel {
     private final JTextArea txtOut = new JTextArea();
     private final JTextArea txtGrammar = new JTextArea();
 
+    private final JButton btnPrev = new JButton("◀ Anterior");
+    private final JButton btnNext = new JButton("Siguiente ▶");
+    private final JButton btnSave = new JButton("Guardar reporte...");
+    private final JLabel lblPage = new JLabel(" ");
+
     private File selectedFile = null;
+    private LR0Automaton automata = null;
+    private int page = 0;
 
     public ColeccionCanonicaPanel() {
         setLayout(new BorderLayout(8,8));
@@ -50,7 +65,15 @@ public class ColeccionCanonicaPanel extends JPanel {
         JSplitPane split = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT);
         txtOut.setEditable(false);
         txtOut.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
-        JScrollPane spLeft = new JScrollPane(txtOut);
+        JScrollPane spOut = new JScrollPane(txtOut);
+        JPanel pager = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        pager.add(btnPrev);
+        pager.add(lblPage);
+        pager.add(btnNext);
+        pager.add(btnSave);
+        JPanel spLeft = new JPanel(new BorderLayout());
+        spLeft.add(spOut, BorderLayout.CENTER);
+        spLeft.add(pager, BorderLayout.SOUTH);
         spLeft.setBorder(new TitledBorder("Colección canónica"));
 
         txtGrammar.setEditable(false);
@@ -65,12 +88,18 @@ public class ColeccionCanonicaPanel extends JPanel {
 
         btnOpen.addActionListener(this::onOpen);
         btnAnalyze.addActionListener(this::onAnalyze);
+        btnPrev.addActionListener(k -> showPage(page - 1));
+        btnNext.addActionListener(k -> showPage(page + 1));
+        btnSave.addActionListener(this::onSave);
         btnClear.addActionListener(k -> {
             txtPath.setText("");
             txtOut.setText("");
             txtGrammar.setText("");
             selectedFile = null;
+            automata = null;
+            updatePager();
         });
+        updatePager();
     }
 
     private void onOpen(ActionEvent e) {
@@ -90,6 +119,8 @@ public class ColeccionCanonicaPanel extends JPanel {
             try {
                 txtGrammar.setText(grammar.readWholeFile(selectedFile.getAbsolutePath()));
                 txtOut.setText("");
+                automata = null;
+                updatePager();
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "No se pudo leer el archivo:\n" + ex.getMessage(),
                         "Error", JOptionPane.ERROR_MESSAGE);
@@ -104,16 +135,66 @@ public class ColeccionCanonicaPanel extends JPanel {
             return;
         }
         try {
-            grammar g = grammar.parseAugmentedGrammar(selectedFile.getAbsolutePath());
-            List<Set<itemLR0>> C = canonicalLR.canonicalCollection(g);
-            String report = canonicalLR.formatReport(g, C);
-            txtOut.setText(report);
+            automata = CompiledLanguage.obtener(selectedFile.getAbsolutePath()).automata();
+            showPage(0);
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Error al analizar:\n" + ex.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    /** Muestra los Ir_a de una página de estados; la primera lleva también la cerradura inicial. */
+    private void showPage(int p) {
+        if (automata == null) return;
+        page = Math.max(0, Math.min(p, pageCount() - 1));
+        int desde = page * ESTADOS_POR_PAGINA;
+        int hasta = Math.min(desde + ESTADOS_POR_PAGINA, automata.numEstados());
+        StringWriter out = new StringWriter();
+        try {
+            if (page == 0) canonicalLR.writeHeader(automata, out);
+            for (int i = desde; i < hasta; i++) canonicalLR.writeState(automata, i, out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);     // StringWriter no falla
+        }
+        txtOut.setText(out.toString());
+        txtOut.setCaretPosition(0);
+        updatePager();
+    }
+
+    private int pageCount() {
+        return (automata.numEstados() + ESTADOS_POR_PAGINA - 1) / ESTADOS_POR_PAGINA;
+    }
+
+    private void updatePager() {
+        boolean hay = automata != null;
+        btnPrev.setEnabled(hay && page > 0);
+        btnNext.setEnabled(hay && page < pageCount() - 1);
+        btnSave.setEnabled(hay);
+        if (hay) {
+            int desde = page * ESTADOS_POR_PAGINA;
+            int hasta = Math.min(desde + ESTADOS_POR_PAGINA, automata.numEstados()) - 1;
+            lblPage.setText("Estados I" + desde + "–I" + hasta + " de " + automata.numEstados()
+                    + " (página " + (page + 1) + "/" + pageCount() + ")");
+        } else {
+            lblPage.setText(" ");
+        }
+    }
+
+    /** Escribe el reporte completo a un archivo, estado por estado. */
+    private void onSave(ActionEvent e) {
+        if (automata == null) return;
+        JFileChooser ch = new JFileChooser();
+        if (selectedFile != null) ch.setCurrentDirectory(selectedFile.getParentFile());
+        ch.setDialogTitle("Guardar colección canónica");
+        if (ch.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try (Writer out = Files.newBufferedWriter(ch.getSelectedFile().toPath(), StandardCharsets.UTF_8)) {
+            canonicalLR.writeReport(automata, out);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "No se pudo guardar el reporte:\n" + ex.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             JFrame f = new JFrame("Cálculo de la colección canónica");
@@ -43,14 +43,14 @@ public class ResultadosTablaLRFrame extends JFrame {
         for (int i = 0; i < r.states; i++) {
             data[i][0] = i;
 
-            Map<String, String> rowAction = r.action.getOrDefault(i, Map.of());
+            Map<String, String> rowAction = r.action().getOrDefault(i, Map.of());
             for (int j = 0; j < tCount; j++) {
                 String a = r.terminals.get(j);
                 String v = rowAction.get(a);
                 data[i][1 + j] = v == null ? "" : v;
             }
 
-            Map<String, Integer> rowGoto = r.gotoTable.getOrDefault(i, Map.of());
+            Map<String, Integer> rowGoto = r.gotoTable().getOrDefault(i, Map.of());
             for (int j = 0; j < nCount; j++) {
                 String A = r.nonTerminals.get(j);
                 Integer v = rowGoto.get(A);
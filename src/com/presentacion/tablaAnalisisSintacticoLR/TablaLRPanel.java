@@ -1,5 +1,6 @@
 package com.presentacion.tablaAnalisisSintacticoLR;
 
+import com.persistencia.analizadorSemantico.CompiledLanguage;
 import com.persistencia.analizadorSintacticoLR.tablaLR.lr0Table;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -83,7 +84,7 @@ public class TablaLRPanel extends JPanel {
             return;
         }
         try {
-            lr0Table.Result r = lr0Table.buildFromFile(selectedFile.getAbsolutePath());
+            lr0Table.Result r = CompiledLanguage.obtener(selectedFile.getAbsolutePath()).tabla;
             ResultadosTablaLRFrame frame = new ResultadosTablaLRFrame(r);
             frame.setLocationRelativeTo(SwingUtilities.getWindowAncestor(this));
             frame.setVisible(true);